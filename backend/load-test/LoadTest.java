@@ -0,0 +1,173 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load generator for comparing server configurations, e.g. the
+ * default platform-thread pool against the virtual-threads profile.
+ *
+ * Usage: java LoadTest.java [baseUrl] [concurrency] [durationSeconds] [path ...]
+ *
+ * Each client thread logs in once as a dedicated load-test user, then sends GET
+ * requests back to back for the given duration after a short warm-up. Prints
+ * throughput and latency percentiles for the measured period. A path given as
+ * "POST /api/sessions" creates a session instead, for mixed read/write runs.
+ */
+public class LoadTest {
+
+    private static final int WARMUP_SECONDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        int durationSeconds = args.length > 2 ? Integer.parseInt(args[2]) : 30;
+        List<String> paths = args.length > 3
+                ? Arrays.asList(args).subList(3, args.length)
+                : List.of("/api/sessions/stats", "/api/sessions?limit=20");
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String token = login(client, baseUrl);
+        String userId = userId(client, baseUrl);
+        seedSessions(client, baseUrl, token, userId);
+
+        long warmupEnd = System.nanoTime() + WARMUP_SECONDS * 1_000_000_000L;
+        long end = warmupEnd + durationSeconds * 1_000_000_000L;
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        CountDownLatch done = new CountDownLatch(concurrency);
+
+        for (int i = 0; i < concurrency; i++) {
+            long[] samples = new long[4_000_000 / concurrency + 1000];
+            latencies.add(samples);
+            int offset = i;
+            Thread thread = new Thread(() -> {
+                int count = 0;
+                int request = offset;
+                try {
+                    while (System.nanoTime() < end) {
+                        String path = paths.get(request++ % paths.size());
+                        long start = System.nanoTime();
+                        try {
+                            HttpRequest.Builder builder = HttpRequest.newBuilder()
+                                    .header("Authorization", "Bearer " + token);
+                            if (path.startsWith("POST ")) {
+                                builder.uri(URI.create(baseUrl + path.substring(5)))
+                                        .header("Content-Type", "application/json")
+                                        .POST(HttpRequest.BodyPublishers.ofString(sessionJson(request, userId)));
+                            } else {
+                                builder.uri(URI.create(baseUrl + path)).GET();
+                            }
+                            HttpResponse<Void> response = client.send(builder.build(), HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        long finish = System.nanoTime();
+                        if (start >= warmupEnd && count < samples.length - 1) {
+                            samples[++count] = finish - start;
+                        }
+                    }
+                } finally {
+                    samples[0] = count;
+                    done.countDown();
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+
+        int total = 0;
+        for (long[] samples : latencies) {
+            total += (int) samples[0];
+        }
+        long[] all = new long[total];
+        int position = 0;
+        for (long[] samples : latencies) {
+            System.arraycopy(samples, 1, all, position, (int) samples[0]);
+            position += (int) samples[0];
+        }
+        Arrays.sort(all);
+
+        System.out.printf("concurrency=%d duration=%ds paths=%s%n", concurrency, durationSeconds, paths);
+        System.out.printf("requests=%d errors=%d throughput=%.1f req/s%n", total, errors.get(), total / (double) durationSeconds);
+        System.out.printf("latency ms: p50=%.2f p90=%.2f p99=%.2f max=%.2f%n",
+                percentile(all, 0.50), percentile(all, 0.90), percentile(all, 0.99), percentile(all, 1.0));
+    }
+
+    private static double percentile(long[] sorted, double fraction) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(fraction * sorted.length) - 1);
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    private static String login(HttpClient client, String baseUrl) throws Exception {
+        post(client, baseUrl + "/api/auth/register", null,
+                "{\"username\":\"loadtest\",\"email\":\"loadtest@example.com\",\"password\":\"loadtest123\"}");
+        String body = post(client, baseUrl + "/api/auth/login", null,
+                "{\"username\":\"loadtest\",\"password\":\"loadtest123\"}");
+        Matcher matcher = Pattern.compile("\"token\":\"([^\"]+)\"").matcher(body);
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login failed: " + body);
+        }
+        return matcher.group(1);
+    }
+
+    private static String userId(HttpClient client, String baseUrl) throws Exception {
+        Matcher matcher = Pattern.compile("\"id\":(\\d+)").matcher(post(client, baseUrl + "/api/auth/login", null,
+                "{\"username\":\"loadtest\",\"password\":\"loadtest123\"}"));
+        if (!matcher.find()) {
+            throw new IllegalStateException("Login response has no user id");
+        }
+        return matcher.group(1);
+    }
+
+    // Give list endpoints something to return
+    private static void seedSessions(HttpClient client, String baseUrl, String token, String userId) throws Exception {
+        String stats = get(client, baseUrl + "/api/sessions/stats", token);
+        if (stats.contains("\"totalSessions\":0")) {
+            for (int i = 0; i < 50; i++) {
+                post(client, baseUrl + "/api/sessions", token, sessionJson(i, userId));
+            }
+        }
+    }
+
+    private static String sessionJson(int i, String userId) {
+        return String.format(
+                "{\"patientName\":\"Load Patient %d\",\"date\":\"2026-01-%02dT10:00:00\",\"duration\":50,\"userId\":%s}",
+                i, i % 28 + 1, userId);
+    }
+
+    private static String get(HttpClient client, String url, String token) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create(url))
+                        .header("Authorization", "Bearer " + token)
+                        .GET()
+                        .build(),
+                HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static String post(HttpClient client, String url, String token, String json) throws Exception {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return client.send(builder.build(), HttpResponse.BodyHandlers.ofString()).body();
+    }
+}
@@ -0,0 +1,57 @@
+package com.mentalhealth.assistant.security;
+
+import com.mentalhealth.assistant.config.JwtProperties;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtUtilsBenchmark {
+
+    // 0 disables the verification cache, so every call parses and checks the signature
+    @Param({"0", "10000"})
+    private int cacheSize;
+
+    private JwtUtils jwtUtils;
+    private Authentication authentication;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtProperties properties = new JwtProperties();
+        properties.setSecret("YourSecretKeyHereMakeItLongAndSecureForProduction");
+        properties.setExpiration(86400000);
+        properties.setCacheSize(cacheSize);
+        jwtUtils = new JwtUtils(properties);
+
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        User principal = new User("benchmark", "", authorities);
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        token = jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public String generateJwtToken() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public boolean validateJwtToken() {
+        return jwtUtils.validateJwtToken(token);
+    }
+
+    @Benchmark
+    public VerifiedToken parseJwtToken() {
+        return jwtUtils.parseJwtToken(token);
+    }
+}
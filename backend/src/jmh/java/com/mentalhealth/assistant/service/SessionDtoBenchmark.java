@@ -0,0 +1,75 @@
+package com.mentalhealth.assistant.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mentalhealth.assistant.dto.SessionDto;
+import com.mentalhealth.assistant.model.Session;
+import com.mentalhealth.assistant.model.SessionStatus;
+import com.mentalhealth.assistant.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SessionDtoBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int sessionCount;
+
+    private SessionService sessionService;
+    private ObjectMapper objectMapper;
+    private List<Session> sessions;
+    private List<SessionDto> sessionDtos;
+
+    @Setup
+    public void setUp() {
+        sessionService = new SessionService();
+        // Same defaults Spring Boot applies to the application's ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        User user = new User();
+        user.setId(1L);
+        user.setUsername("benchmark");
+
+        LocalDateTime now = LocalDateTime.now();
+        sessions = new ArrayList<>(sessionCount);
+        for (int i = 0; i < sessionCount; i++) {
+            Session session = new Session();
+            session.setId((long) i);
+            session.setPatientName("Patient " + i);
+            session.setDate(now.minusDays(i));
+            session.setDuration(50);
+            session.setStatus(SessionStatus.COMPLETED);
+            session.setNotes("Session notes for patient " + i + ". Discussed progress since last visit.");
+            session.setRecordingUrl("/recordings/" + i + ".webm");
+            session.setTranscriptionId("transcription-" + i);
+            session.setSummaryId("summary-" + i);
+            session.setUser(user);
+            session.setCreatedAt(now);
+            session.setUpdatedAt(now);
+            sessions.add(session);
+        }
+        sessionDtos = convertToDto();
+    }
+
+    @Benchmark
+    public List<SessionDto> convertToDto() {
+        return sessions.stream()
+                .map(sessionService::convertToDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializeDtoList() throws Exception {
+        return objectMapper.writeValueAsBytes(sessionDtos);
+    }
+}
@@ -0,0 +1,30 @@
+package com.mentalhealth.assistant.cache;
+
+import lombok.Value;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Second-level cache entries one node changed in a committed transaction, sent to the
+ * other nodes so they drop their copies, along with the users whose in-memory session
+ * views (collection version, statistics, search index) are stale and the users whose
+ * change feeds have job progress to report
+ */
+@Value
+public class CacheInvalidation implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    String sourceNodeId;
+    // Entity name to the ids of changed rows; their cached collections go with them
+    Map<String, Set<Object>> entities;
+    // Entities changed by bulk statements, whose whole region must go
+    Set<String> entityRegions;
+    // Tables written, so cached query results over them are stale
+    Set<String> querySpaces;
+    // Users whose sessions changed; null in messages from nodes that predate it
+    Set<Long> sessionOwners;
+    // Users whose transcription jobs or summary requests changed; null in messages from nodes that predate it
+    Set<Long> jobOwners;
+}
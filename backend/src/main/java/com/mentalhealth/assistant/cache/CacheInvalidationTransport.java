@@ -0,0 +1,34 @@
+package com.mentalhealth.assistant.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Carries second-level cache invalidations between backend nodes. Messages must reach
+ * every node, including the sender, which ignores its own. Delivery may be asynchronous;
+ * the region TTLs bound how long a lost message can leave a stale entry behind.
+ * Declare a bean of this type (e.g. over Redis pub/sub or a message broker) to replace
+ * the in-JVM default.
+ */
+public interface CacheInvalidationTransport {
+
+    /**
+     * Send an invalidation to all nodes
+     * 
+     * @param invalidation the invalidation
+     */
+    void publish(CacheInvalidation invalidation);
+
+    /**
+     * Start receiving invalidations
+     * 
+     * @param listener called for every invalidation, from any node
+     */
+    void subscribe(Consumer<CacheInvalidation> listener);
+
+    /**
+     * Stop receiving invalidations
+     * 
+     * @param listener a listener passed to {@link #subscribe(Consumer)}
+     */
+    void unsubscribe(Consumer<CacheInvalidation> listener);
+}
@@ -0,0 +1,330 @@
+package com.mentalhealth.assistant.cache;
+
+import com.mentalhealth.assistant.event.RemoteJobChangeEvent;
+import com.mentalhealth.assistant.event.RemoteSessionChangeEvent;
+import com.mentalhealth.assistant.event.SessionChangeEvent;
+import com.mentalhealth.assistant.event.SummaryRequestEvent;
+import com.mentalhealth.assistant.event.TranscriptionJobEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the second-level caches of several backend nodes consistent. Writes to cached
+ * entities are collected per transaction and, once it commits, sent to the other nodes
+ * as one {@link CacheInvalidation}; a node receiving one evicts the listed entities,
+ * their collections and the cached query results. The writing node's own cache is kept
+ * current by Hibernate. Bulk JPQL updates bypass these listeners and must call
+ * {@link #recordBulkChange(Class, Object)} for a single known row, or
+ * {@link #recordBulkChange(Class)} to drop the whole region, themselves. The owners of
+ * changed sessions, taken from every {@link SessionChangeEvent}, travel with the same
+ * message and are announced on the receiving node as a {@link RemoteSessionChangeEvent};
+ * the owners of changed transcription jobs and summary requests are announced as a
+ * {@link RemoteJobChangeEvent}, since workers run on every node but a client's change
+ * feed is connected to only one.
+ */
+@Component
+public class CacheInvalidator implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRecreateEventListener, PostCollectionRemoveEventListener {
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidator.class);
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Consumer<CacheInvalidation> receiver = this::receive;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheInvalidationTransport transport;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private SessionFactoryImplementor sessionFactory;
+    // Cached collection roles by owning entity name
+    private final Map<String, List<String>> collectionRoles = new HashMap<>();
+    private Counter sentCounter;
+    private Counter receivedCounter;
+
+    @PostConstruct
+    public void start() {
+        sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        sessionFactory.getMappingMetamodel().forEachCollectionDescriptor(collection -> {
+            if (collection.hasCache()) {
+                collectionRoles.computeIfAbsent(collection.getOwnerEntityPersister().getEntityName(),
+                        name -> new ArrayList<>()).add(collection.getRole());
+            }
+        });
+
+        EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_INSERT, this);
+        listeners.appendListeners(EventType.POST_UPDATE, this);
+        listeners.appendListeners(EventType.POST_DELETE, this);
+        listeners.appendListeners(EventType.POST_COLLECTION_UPDATE, this);
+        listeners.appendListeners(EventType.POST_COLLECTION_RECREATE, this);
+        listeners.appendListeners(EventType.POST_COLLECTION_REMOVE, this);
+
+        sentCounter = Counter.builder("app.cache.invalidations")
+                .description("Second-level cache invalidations exchanged with other nodes")
+                .tag("direction", "sent")
+                .register(meterRegistry);
+        receivedCounter = Counter.builder("app.cache.invalidations")
+                .description("Second-level cache invalidations exchanged with other nodes")
+                .tag("direction", "received")
+                .register(meterRegistry);
+        transport.subscribe(receiver);
+        logger.info("Second-level cache invalidation started on node {} using {}",
+                nodeId, transport.getClass().getSimpleName());
+    }
+
+    @PreDestroy
+    public void stop() {
+        transport.unsubscribe(receiver);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        // No other node can hold a row that did not exist yet, only query results over its table
+        recordChange(event.getPersister(), null);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        recordChange(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        recordChange(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        recordCollectionChange(event);
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        recordCollectionChange(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        recordCollectionChange(event);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * Invalidate every cached instance of an entity on the other nodes once the
+     * current transaction commits, e.g. after a bulk JPQL update
+     *
+     * @param entityClass the entity class
+     */
+    public void recordBulkChange(Class<?> entityClass) {
+        EntityPersister persister = sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass);
+        if (persister.canWriteToCache()) {
+            Pending pending = pending();
+            pending.entityRegions.add(persister.getEntityName());
+            addQuerySpaces(pending, persister);
+            publishIfOutsideTransaction(pending);
+        }
+    }
+
+    /**
+     * Invalidate one cached instance of an entity on the other nodes once the current
+     * transaction commits, e.g. after a bulk JPQL update of a single known row
+     *
+     * @param entityClass the entity class
+     * @param id the id of the changed row
+     */
+    public void recordBulkChange(Class<?> entityClass, Object id) {
+        recordChange(sessionFactory.getMappingMetamodel().getEntityDescriptor(entityClass), id);
+    }
+
+    // Published inside the writing transaction by every session write path, entity or bulk
+    @EventListener
+    public void onSessionChange(SessionChangeEvent event) {
+        Pending pending = pending();
+        pending.sessionOwners.add(event.getUserId());
+        publishIfOutsideTransaction(pending);
+    }
+
+    // Job progress is often published outside a transaction, in which case it is sent right away
+    @EventListener
+    public void onTranscriptionJob(TranscriptionJobEvent event) {
+        recordJobChange(event.getUserId());
+    }
+
+    @EventListener
+    public void onSummaryRequest(SummaryRequestEvent event) {
+        recordJobChange(event.getUserId());
+    }
+
+    private void recordJobChange(Long userId) {
+        Pending pending = pending();
+        pending.jobOwners.add(userId);
+        publishIfOutsideTransaction(pending);
+    }
+
+    private void recordChange(EntityPersister persister, Object id) {
+        if (!persister.canWriteToCache()) {
+            return;
+        }
+        Pending pending = pending();
+        if (id != null) {
+            pending.entities.computeIfAbsent(persister.getEntityName(), name -> new HashSet<>()).add(id);
+        }
+        addQuerySpaces(pending, persister);
+        publishIfOutsideTransaction(pending);
+    }
+
+    private void recordCollectionChange(AbstractCollectionEvent event) {
+        Object ownerId = event.getAffectedOwnerIdOrNull();
+        if (ownerId == null || !collectionRoles.containsKey(event.getAffectedOwnerEntityName())) {
+            return;
+        }
+        Pending pending = pending();
+        pending.entities.computeIfAbsent(event.getAffectedOwnerEntityName(), name -> new HashSet<>()).add(ownerId);
+        publishIfOutsideTransaction(pending);
+    }
+
+    private static void addQuerySpaces(Pending pending, EntityPersister persister) {
+        for (Serializable space : persister.getQuerySpaces()) {
+            pending.querySpaces.add(space.toString());
+        }
+    }
+
+    // Changes of the current transaction, published together after it commits
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Pending();
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Pending created = new Pending();
+            created.transactional = true;
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    publish(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidator.this);
+                }
+            });
+            pending = created;
+        }
+        return pending;
+    }
+
+    private void publishIfOutsideTransaction(Pending pending) {
+        if (!pending.transactional) {
+            publish(pending);
+        }
+    }
+
+    private void publish(Pending pending) {
+        if (pending.entities.isEmpty() && pending.entityRegions.isEmpty() && pending.querySpaces.isEmpty()
+                && pending.sessionOwners.isEmpty() && pending.jobOwners.isEmpty()) {
+            return;
+        }
+        try {
+            transport.publish(new CacheInvalidation(nodeId, pending.entities, pending.entityRegions, pending.querySpaces,
+                    pending.sessionOwners, pending.jobOwners));
+            sentCounter.increment();
+        } catch (RuntimeException e) {
+            // The commit already happened; other nodes fall back to the region TTLs
+            logger.warn("Failed to publish cache invalidation", e);
+        }
+    }
+
+    private void receive(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.getSourceNodeId())) {
+            return;
+        }
+        receivedCounter.increment();
+        CacheImplementor cache = sessionFactory.getCache();
+        for (Map.Entry<String, Set<Object>> entry : invalidation.getEntities().entrySet()) {
+            List<String> roles = collectionRoles.getOrDefault(entry.getKey(), List.of());
+            for (Object id : entry.getValue()) {
+                cache.evictEntityData(entry.getKey(), id);
+                for (String role : roles) {
+                    cache.evictCollectionData(role, id);
+                }
+            }
+        }
+        for (String entityName : invalidation.getEntityRegions()) {
+            cache.evictEntityData(entityName);
+            for (String role : collectionRoles.getOrDefault(entityName, List.of())) {
+                cache.evictCollectionData(role);
+            }
+        }
+        if (!invalidation.getQuerySpaces().isEmpty()) {
+            // Update timestamps cannot be bumped from outside a session, so drop the results instead
+            cache.evictQueryRegions();
+        }
+        if (invalidation.getSessionOwners() != null && !invalidation.getSessionOwners().isEmpty()) {
+            eventPublisher.publishEvent(new RemoteSessionChangeEvent(invalidation.getSessionOwners()));
+        }
+        if (invalidation.getJobOwners() != null && !invalidation.getJobOwners().isEmpty()) {
+            eventPublisher.publishEvent(new RemoteJobChangeEvent(invalidation.getJobOwners()));
+        }
+    }
+
+    private static class Pending {
+        private final Map<String, Set<Object>> entities = new HashMap<>();
+        private final Set<String> entityRegions = new HashSet<>();
+        private final Set<String> querySpaces = new HashSet<>();
+        private final Set<Long> sessionOwners = new HashSet<>();
+        private final Set<Long> jobOwners = new HashSet<>();
+        private boolean transactional;
+    }
+}
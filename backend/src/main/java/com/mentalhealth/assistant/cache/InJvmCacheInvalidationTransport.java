@@ -0,0 +1,41 @@
+package com.mentalhealth.assistant.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Delivers invalidations synchronously to every subscriber in this JVM. The subscriber
+ * list is shared by all application contexts, so two contexts started side by side in
+ * a test behave like two nodes. On a single node this is all that is needed; a
+ * multi-node deployment must provide a real {@link CacheInvalidationTransport}.
+ */
+public class InJvmCacheInvalidationTransport implements CacheInvalidationTransport {
+    private static final Logger logger = LoggerFactory.getLogger(InJvmCacheInvalidationTransport.class);
+
+    private static final List<Consumer<CacheInvalidation>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(CacheInvalidation invalidation) {
+        for (Consumer<CacheInvalidation> listener : listeners) {
+            try {
+                listener.accept(invalidation);
+            } catch (RuntimeException e) {
+                logger.warn("Cache invalidation listener failed", e);
+            }
+        }
+    }
+
+    @Override
+    public void subscribe(Consumer<CacheInvalidation> listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void unsubscribe(Consumer<CacheInvalidation> listener) {
+        listeners.remove(listener);
+    }
+}
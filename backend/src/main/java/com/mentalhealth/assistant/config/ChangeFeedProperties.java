@@ -0,0 +1,57 @@
+package com.mentalhealth.assistant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.change-feed")
+public class ChangeFeedProperties {
+    
+    private Duration flushInterval = Duration.ofMillis(250);
+    private int maxPendingEvents = 256;
+    private Duration sendTimeout = Duration.ofSeconds(10);
+    private int sendBufferSize = 512 * 1024;
+    private int senderThreads = 4;
+    
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+    
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+    
+    public int getMaxPendingEvents() {
+        return maxPendingEvents;
+    }
+    
+    public void setMaxPendingEvents(int maxPendingEvents) {
+        this.maxPendingEvents = maxPendingEvents;
+    }
+    
+    public Duration getSendTimeout() {
+        return sendTimeout;
+    }
+    
+    public void setSendTimeout(Duration sendTimeout) {
+        this.sendTimeout = sendTimeout;
+    }
+    
+    public int getSendBufferSize() {
+        return sendBufferSize;
+    }
+    
+    public void setSendBufferSize(int sendBufferSize) {
+        this.sendBufferSize = sendBufferSize;
+    }
+    
+    public int getSenderThreads() {
+        return senderThreads;
+    }
+    
+    public void setSenderThreads(int senderThreads) {
+        this.senderThreads = senderThreads;
+    }
+}
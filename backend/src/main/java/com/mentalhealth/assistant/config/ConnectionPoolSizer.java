@@ -0,0 +1,69 @@
+package com.mentalhealth.assistant.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizes every Hikari pool at startup instead of using a fixed maximum-pool-size.
+ * <p>
+ * The database can only run about (cores * 2 + effective spindles) statements at once;
+ * connections beyond that just queue inside the database. Within that bound the pool
+ * only needs to cover the expected demand, which by Little's law is the peak
+ * transaction rate times the mean time a transaction holds its connection. The pool
+ * is fixed-size (minimum-idle = maximum-pool-size) so it never grows under a spike.
+ * When enabled, this overrides any configured maximum-pool-size and minimum-idle.
+ * The properties are resolved on first use: a post-processor is created before the
+ * other beans, and anything it requires eagerly misses their post-processing.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.datasource.pool-sizing", name = "enabled", havingValue = "true")
+public class ConnectionPoolSizer implements BeanPostProcessor {
+    private static final Logger logger = LoggerFactory.getLogger(ConnectionPoolSizer.class);
+
+    private final ObjectProvider<PoolSizingProperties> properties;
+
+    public ConnectionPoolSizer(ObjectProvider<PoolSizingProperties> properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource) {
+            HikariDataSource dataSource = (HikariDataSource) bean;
+            int size = poolSize();
+            dataSource.setMaximumPoolSize(size);
+            dataSource.setMinimumIdle(size);
+            logger.info("Sized connection pool {} to {} connections", beanName, size);
+        }
+        return bean;
+    }
+
+    /**
+     * Get the pool size for the configured database and load
+     * 
+     * @return the number of connections
+     */
+    public int poolSize() {
+        PoolSizingProperties properties = this.properties.getObject();
+        int cores = properties.getDatabaseCores() > 0
+                ? properties.getDatabaseCores()
+                : Runtime.getRuntime().availableProcessors();
+        int databaseLimit = cores * 2 + properties.getEffectiveSpindles();
+        if (properties.getPeakTransactionsPerSecond() <= 0) {
+            return Math.max(properties.getMinSize(), databaseLimit);
+        }
+
+        double holdSeconds = properties.getConnectionHoldTime().toNanos() / 1e9;
+        int demand = (int) Math.ceil(properties.getPeakTransactionsPerSecond() * holdSeconds);
+        if (demand > databaseLimit) {
+            logger.warn("Peak load needs {} connections but the database can only work on about {} at once; "
+                    + "requests will wait for connections at peak", demand, databaseLimit);
+        }
+        return Math.max(properties.getMinSize(), Math.min(demand, databaseLimit));
+    }
+}
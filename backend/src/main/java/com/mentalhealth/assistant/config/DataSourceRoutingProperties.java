@@ -0,0 +1,31 @@
+package com.mentalhealth.assistant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.datasource.routing")
+public class DataSourceRoutingProperties {
+    
+    // Must exceed the replica's usual replication lag
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+    private int trackedUsers = 100000;
+    
+    public Duration getReadYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+    
+    public void setReadYourWritesWindow(Duration readYourWritesWindow) {
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+    
+    public int getTrackedUsers() {
+        return trackedUsers;
+    }
+    
+    public void setTrackedUsers(int trackedUsers) {
+        this.trackedUsers = trackedUsers;
+    }
+}
@@ -9,6 +9,7 @@ public class JwtProperties {
     
     private String secret;
     private int expiration;
+    private int cacheSize = 10000;
     
     public String getSecret() {
         return secret;
@@ -25,4 +26,12 @@ public class JwtProperties {
     public void setExpiration(int expiration) {
         this.expiration = expiration;
     }
+    
+    public int getCacheSize() {
+        return cacheSize;
+    }
+    
+    public void setCacheSize(int cacheSize) {
+        this.cacheSize = cacheSize;
+    }
 }
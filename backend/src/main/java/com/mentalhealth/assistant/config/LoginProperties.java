@@ -0,0 +1,66 @@
+package com.mentalhealth.assistant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.login")
+public class LoginProperties {
+    
+    private int hashingThreads = 0;
+    private int queueCapacity = 64;
+    private int maxAttemptsPerAddress = 30;
+    private int maxAttemptsPerUsername = 10;
+    private Duration rateLimitWindow = Duration.ofMinutes(1);
+    private int rateLimitTrackedKeys = 100000;
+    
+    public int getHashingThreads() {
+        return hashingThreads;
+    }
+    
+    public void setHashingThreads(int hashingThreads) {
+        this.hashingThreads = hashingThreads;
+    }
+    
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+    
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+    
+    public int getMaxAttemptsPerAddress() {
+        return maxAttemptsPerAddress;
+    }
+    
+    public void setMaxAttemptsPerAddress(int maxAttemptsPerAddress) {
+        this.maxAttemptsPerAddress = maxAttemptsPerAddress;
+    }
+    
+    public int getMaxAttemptsPerUsername() {
+        return maxAttemptsPerUsername;
+    }
+    
+    public void setMaxAttemptsPerUsername(int maxAttemptsPerUsername) {
+        this.maxAttemptsPerUsername = maxAttemptsPerUsername;
+    }
+    
+    public Duration getRateLimitWindow() {
+        return rateLimitWindow;
+    }
+    
+    public void setRateLimitWindow(Duration rateLimitWindow) {
+        this.rateLimitWindow = rateLimitWindow;
+    }
+    
+    public int getRateLimitTrackedKeys() {
+        return rateLimitTrackedKeys;
+    }
+    
+    public void setRateLimitTrackedKeys(int rateLimitTrackedKeys) {
+        this.rateLimitTrackedKeys = rateLimitTrackedKeys;
+    }
+}
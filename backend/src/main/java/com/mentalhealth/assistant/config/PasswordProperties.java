@@ -0,0 +1,48 @@
+package com.mentalhealth.assistant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.password")
+public class PasswordProperties {
+    
+    private int strength = 0;
+    private Duration targetVerifyTime = Duration.ofMillis(250);
+    private int minStrength = 10;
+    private int maxStrength = 14;
+    
+    public int getStrength() {
+        return strength;
+    }
+    
+    public void setStrength(int strength) {
+        this.strength = strength;
+    }
+    
+    public Duration getTargetVerifyTime() {
+        return targetVerifyTime;
+    }
+    
+    public void setTargetVerifyTime(Duration targetVerifyTime) {
+        this.targetVerifyTime = targetVerifyTime;
+    }
+    
+    public int getMinStrength() {
+        return minStrength;
+    }
+    
+    public void setMinStrength(int minStrength) {
+        this.minStrength = minStrength;
+    }
+    
+    public int getMaxStrength() {
+        return maxStrength;
+    }
+    
+    public void setMaxStrength(int maxStrength) {
+        this.maxStrength = maxStrength;
+    }
+}
@@ -0,0 +1,69 @@
+package com.mentalhealth.assistant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.datasource.pool-sizing")
+public class PoolSizingProperties {
+    
+    private boolean enabled = false;
+    // Cores of the database server; 0 assumes the same as this host
+    private int databaseCores = 0;
+    private int effectiveSpindles = 1;
+    // Expected peak load; 0 sizes from the database cores alone
+    private int peakTransactionsPerSecond = 0;
+    // Mean time a transaction holds a connection, as measured by hikaricp.connections.usage
+    private Duration connectionHoldTime = Duration.ofMillis(5);
+    private int minSize = 2;
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+    
+    public int getDatabaseCores() {
+        return databaseCores;
+    }
+    
+    public void setDatabaseCores(int databaseCores) {
+        this.databaseCores = databaseCores;
+    }
+    
+    public int getEffectiveSpindles() {
+        return effectiveSpindles;
+    }
+    
+    public void setEffectiveSpindles(int effectiveSpindles) {
+        this.effectiveSpindles = effectiveSpindles;
+    }
+    
+    public int getPeakTransactionsPerSecond() {
+        return peakTransactionsPerSecond;
+    }
+    
+    public void setPeakTransactionsPerSecond(int peakTransactionsPerSecond) {
+        this.peakTransactionsPerSecond = peakTransactionsPerSecond;
+    }
+    
+    public Duration getConnectionHoldTime() {
+        return connectionHoldTime;
+    }
+    
+    public void setConnectionHoldTime(Duration connectionHoldTime) {
+        this.connectionHoldTime = connectionHoldTime;
+    }
+    
+    public int getMinSize() {
+        return minSize;
+    }
+    
+    public void setMinSize(int minSize) {
+        this.minSize = minSize;
+    }
+}
@@ -0,0 +1,79 @@
+package com.mentalhealth.assistant.config;
+
+import com.mentalhealth.assistant.event.RemoteSessionChangeEvent;
+import com.mentalhealth.assistant.security.ExpiringCache;
+import com.mentalhealth.assistant.security.UserPrincipal;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Remembers which users wrote recently, so their reads stay on the primary until
+ * the replicas have caught up with their own changes, including changes to their
+ * sessions made on other nodes
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final DataSourceRoutingProperties properties;
+    private final ExpiringCache<Long, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(DataSourceRoutingProperties properties) {
+        this.properties = properties;
+        this.recentWriters = new ExpiringCache<>(properties.getTrackedUsers());
+    }
+
+    /**
+     * Pin a user's reads to the primary once the current transaction commits,
+     * or right away without one
+     * 
+     * @param userId the user ID
+     */
+    public void recordWrite(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    pin(userId);
+                }
+            });
+        } else {
+            pin(userId);
+        }
+    }
+
+    /**
+     * Whether the current authenticated user wrote within the read-your-writes window
+     * 
+     * @return true if their reads must go to the primary
+     */
+    public boolean isCurrentUserPinned() {
+        Long userId = currentUserId();
+        return userId != null && recentWriters.get(userId) != null;
+    }
+
+    // Their views on this node are reloaded next, and must not be reloaded from a lagging replica
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onRemoteSessionChange(RemoteSessionChangeEvent event) {
+        event.getUserIds().forEach(this::pin);
+    }
+
+    private void pin(Long userId) {
+        recentWriters.put(userId, Boolean.TRUE,
+                System.currentTimeMillis() + properties.getReadYourWritesWindow().toMillis());
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal) {
+            return ((UserPrincipal) authentication.getPrincipal()).getId();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,59 @@
+package com.mentalhealth.assistant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.recordings")
+public class RecordingStorageProperties {
+    
+    private String storageDir = "./data/recordings";
+    private DataSize maxChunkSize = DataSize.ofMegabytes(16);
+    private DataSize maxFileSize = DataSize.ofGigabytes(2);
+    // Unfinished uploads without a chunk for this long are deleted with their partial files
+    private Duration abandonedUploadTtl = Duration.ofHours(24);
+    private Duration sweepInterval = Duration.ofHours(1);
+    
+    public String getStorageDir() {
+        return storageDir;
+    }
+    
+    public void setStorageDir(String storageDir) {
+        this.storageDir = storageDir;
+    }
+    
+    public DataSize getMaxChunkSize() {
+        return maxChunkSize;
+    }
+    
+    public void setMaxChunkSize(DataSize maxChunkSize) {
+        this.maxChunkSize = maxChunkSize;
+    }
+    
+    public DataSize getMaxFileSize() {
+        return maxFileSize;
+    }
+    
+    public void setMaxFileSize(DataSize maxFileSize) {
+        this.maxFileSize = maxFileSize;
+    }
+    
+    public Duration getAbandonedUploadTtl() {
+        return abandonedUploadTtl;
+    }
+    
+    public void setAbandonedUploadTtl(Duration abandonedUploadTtl) {
+        this.abandonedUploadTtl = abandonedUploadTtl;
+    }
+    
+    public Duration getSweepInterval() {
+        return sweepInterval;
+    }
+    
+    public void setSweepInterval(Duration sweepInterval) {
+        this.sweepInterval = sweepInterval;
+    }
+}
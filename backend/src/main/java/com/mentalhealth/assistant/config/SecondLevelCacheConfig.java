@@ -0,0 +1,73 @@
+package com.mentalhealth.assistant.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.mentalhealth.assistant.cache.CacheInvalidationTransport;
+import com.mentalhealth.assistant.cache.InJvmCacheInvalidationTransport;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate second-level cache regions, held on the local heap by Caffeine behind JCache.
+ * Every region is declared here with its size and TTL; Hibernate is configured to fail
+ * at startup rather than silently create an unbounded region for anything missing.
+ * Each application context gets a cache manager of its own instead of the JVM-wide default
+ * one, so contexts sharing a JVM, as in tests of several nodes, never share or close each
+ * other's regions.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String SESSIONS_REGION = "sessions";
+    public static final String USERS_REGION = "users";
+    public static final String USER_ROLES_REGION = "users.roles";
+
+    @Bean
+    public CacheManager secondLevelCacheManager(SecondLevelCacheProperties properties) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        URI uri = URI.create("second-level-cache:" + UUID.randomUUID());
+        CacheManager cacheManager = provider.getCacheManager(uri, getClass().getClassLoader());
+
+        createRegion(cacheManager, SESSIONS_REGION, properties.getSessions());
+        createRegion(cacheManager, USERS_REGION, properties.getUsers());
+        createRegion(cacheManager, USER_ROLES_REGION, properties.getUsers());
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, properties.getQueries());
+        // Must outlive every cached query result, so no size bound or expiry; it holds one entry per table
+        createRegion(cacheManager, RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, null);
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public CacheInvalidationTransport cacheInvalidationTransport() {
+        return new InJvmCacheInvalidationTransport();
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, SecondLevelCacheProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // Hibernate stores immutable disassembled state, so copying on every access buys nothing
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        if (region != null) {
+            configuration.setMaximumSize(OptionalLong.of(region.getMaxSize()));
+            configuration.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+        }
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -0,0 +1,69 @@
+package com.mentalhealth.assistant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.second-level-cache")
+public class SecondLevelCacheProperties {
+    
+    private Region sessions = new Region(10000, Duration.ofMinutes(10));
+    private Region users = new Region(1000, Duration.ofMinutes(30));
+    private Region queries = new Region(5000, Duration.ofMinutes(2));
+    
+    public Region getSessions() {
+        return sessions;
+    }
+    
+    public void setSessions(Region sessions) {
+        this.sessions = sessions;
+    }
+    
+    public Region getUsers() {
+        return users;
+    }
+    
+    public void setUsers(Region users) {
+        this.users = users;
+    }
+    
+    public Region getQueries() {
+        return queries;
+    }
+    
+    public void setQueries(Region queries) {
+        this.queries = queries;
+    }
+    
+    public static class Region {
+        
+        private long maxSize;
+        private Duration ttl;
+        
+        public Region() {
+        }
+        
+        public Region(long maxSize, Duration ttl) {
+            this.maxSize = maxSize;
+            this.ttl = ttl;
+        }
+        
+        public long getMaxSize() {
+            return maxSize;
+        }
+        
+        public void setMaxSize(long maxSize) {
+            this.maxSize = maxSize;
+        }
+        
+        public Duration getTtl() {
+            return ttl;
+        }
+        
+        public void setTtl(Duration ttl) {
+            this.ttl = ttl;
+        }
+    }
+}
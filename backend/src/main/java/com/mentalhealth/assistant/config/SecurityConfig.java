@@ -1,8 +1,15 @@
 package com.mentalhealth.assistant.config;
 
+import com.mentalhealth.assistant.security.CalibratedBCryptPasswordEncoder;
 import com.mentalhealth.assistant.security.JwtAuthenticationFilter;
+import com.mentalhealth.assistant.security.TimedPasswordEncoder;
 import com.mentalhealth.assistant.security.UserDetailsServiceImpl;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -12,34 +19,58 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
+import java.util.Map;
+
+import static org.springframework.security.web.util.matcher.AntPathRequestMatcher.antMatcher;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity
 public class SecurityConfig {
 
+    private static final String BCRYPT_ID = "bcrypt";
+
     @Autowired
     private UserDetailsServiceImpl userDetailsService;
 
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PasswordProperties passwordProperties;
+
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(auth -> auth
+                // Streamed responses finish on an async dispatch of a request that was already authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**", "/h2-console/**", "/api-docs/**", "/swagger-ui/**").permitAll()
+                .requestMatchers("/actuator/health").permitAll()
+                // Metrics are open only on a separate management port (management.server.port, set by the
+                // postgres profile); on the application port scrapes need a token like any other request
+                .requestMatchers(new AndRequestMatcher(antMatcher("/actuator/prometheus"), this::onManagementPort))
+                    .permitAll()
+                // The change feed handshake authenticates its own token, see ChangeFeedHandshakeInterceptor
+                .requestMatchers("/ws/changes").permitAll()
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -51,11 +82,17 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // The same filter chain also guards the management server's child context
+    private boolean onManagementPort(HttpServletRequest request) {
+        return managementPort > 0 && request.getLocalPort() == managementPort;
+    }
+
     @Bean
     public DaoAuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         return authProvider;
     }
 
@@ -68,8 +105,10 @@ public class SecurityConfig {
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000"));
-        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        // Updates return the new version only as an ETag, which the client sends back as If-Match
+        configuration.setExposedHeaders(Arrays.asList("ETag"));
         configuration.setAllowCredentials(true);
         
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
@@ -77,8 +116,25 @@ public class SecurityConfig {
         return source;
     }
 
+    /**
+     * Password encoder that prefixes every new hash with its algorithm id, e.g.
+     * "{bcrypt}$2a$12$...", where the BCrypt cost is either fixed by app.password.strength
+     * or calibrated at startup against app.password.target-verify-time. Hashes stored
+     * before the prefix existed are still verified as BCrypt. Hashes with a lower cost are
+     * re-encoded on the next successful login, see {@link #authenticationProvider()}.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        CalibratedBCryptPasswordEncoder bcrypt = passwordProperties.getStrength() > 0
+                ? new CalibratedBCryptPasswordEncoder(passwordProperties.getStrength())
+                : CalibratedBCryptPasswordEncoder.calibrate(passwordProperties.getTargetVerifyTime(),
+                        passwordProperties.getMinStrength(), passwordProperties.getMaxStrength());
+        Gauge.builder("app.auth.password.cost", bcrypt, CalibratedBCryptPasswordEncoder::getStrength)
+                .description("BCrypt cost used for new password hashes")
+                .register(meterRegistry);
+
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(BCRYPT_ID, Map.of(BCRYPT_ID, bcrypt));
+        encoder.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new TimedPasswordEncoder(encoder, meterRegistry);
     }
 }
@@ -0,0 +1,59 @@
+package com.mentalhealth.assistant.config;
+
+import com.mentalhealth.assistant.model.Session;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves the session id sequence past the ids already in the sessions table before the
+ * application starts serving. Session ids were IDENTITY columns before they came from a
+ * pooled sequence, and ddl-auto creates that sequence starting at 1, so on a database
+ * with existing sessions the first pooled ids would collide with them. Once the sequence
+ * is ahead this only costs one sequence value per startup.
+ * <p>
+ * When upgrading such a database, start one node first: two nodes seeding at the same
+ * time could both restart the sequence after one of them already drew from it.
+ */
+@Component
+public class SessionSequenceSeeder implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(SessionSequenceSeeder.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        String nextValue = dialect.getSequenceSupport().getSequenceNextValString(Session.ID_SEQUENCE);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            long maxId = ((Number) entityManager.createNativeQuery("select coalesce(max(id), 0) from sessions")
+                    .getSingleResult()).longValue();
+            long next = ((Number) entityManager.createNativeQuery(nextValue).getSingleResult()).longValue();
+            // The pooled optimizer hands out the allocationSize ids ending at the sequence value
+            if (maxId > 0 && next - Session.ID_ALLOCATION_SIZE < maxId) {
+                long restart = maxId + Session.ID_ALLOCATION_SIZE;
+                entityManager.createNativeQuery("alter sequence " + Session.ID_SEQUENCE + " restart with " + restart)
+                        .executeUpdate();
+                logger.info("Moved {} from {} to {}, past the highest session id {}",
+                        Session.ID_SEQUENCE, next, restart, maxId);
+            }
+        });
+    }
+}
@@ -0,0 +1,67 @@
+package com.mentalhealth.assistant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.summary")
+public class SummaryProperties {
+    
+    private String summarizer = "stub";
+    private int batchSize = 20;
+    private Duration batchInterval = Duration.ofSeconds(2);
+    private int maxAttempts = 3;
+    private Duration retryBackoff = Duration.ofSeconds(30);
+    // A RUNNING request older than this is assumed lost with its node and requeued; must exceed a batch's run time
+    private Duration leaseTimeout = Duration.ofMinutes(10);
+    
+    public String getSummarizer() {
+        return summarizer;
+    }
+    
+    public void setSummarizer(String summarizer) {
+        this.summarizer = summarizer;
+    }
+    
+    public int getBatchSize() {
+        return batchSize;
+    }
+    
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    
+    public Duration getBatchInterval() {
+        return batchInterval;
+    }
+    
+    public void setBatchInterval(Duration batchInterval) {
+        this.batchInterval = batchInterval;
+    }
+    
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+    
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+    
+    public Duration getRetryBackoff() {
+        return retryBackoff;
+    }
+    
+    public void setRetryBackoff(Duration retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+    
+    public Duration getLeaseTimeout() {
+        return leaseTimeout;
+    }
+    
+    public void setLeaseTimeout(Duration leaseTimeout) {
+        this.leaseTimeout = leaseTimeout;
+    }
+}
@@ -0,0 +1,76 @@
+package com.mentalhealth.assistant.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.transcription")
+public class TranscriptionProperties {
+    
+    private String engine = "stub";
+    private int workerThreads = 2;
+    private int queueCapacity = 50;
+    private int maxAttempts = 3;
+    private Duration retryBackoff = Duration.ofSeconds(10);
+    private Duration pollInterval = Duration.ofSeconds(1);
+    // A RUNNING job whose worker has not renewed its claim for this long is requeued
+    private Duration leaseTimeout = Duration.ofMinutes(5);
+    
+    public String getEngine() {
+        return engine;
+    }
+    
+    public void setEngine(String engine) {
+        this.engine = engine;
+    }
+    
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+    
+    public void setWorkerThreads(int workerThreads) {
+        this.workerThreads = workerThreads;
+    }
+    
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+    
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+    
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+    
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+    
+    public Duration getRetryBackoff() {
+        return retryBackoff;
+    }
+    
+    public void setRetryBackoff(Duration retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+    
+    public Duration getPollInterval() {
+        return pollInterval;
+    }
+    
+    public void setPollInterval(Duration pollInterval) {
+        this.pollInterval = pollInterval;
+    }
+    
+    public Duration getLeaseTimeout() {
+        return leaseTimeout;
+    }
+    
+    public void setLeaseTimeout(Duration leaseTimeout) {
+        this.leaseTimeout = leaseTimeout;
+    }
+}
@@ -0,0 +1,27 @@
+package com.mentalhealth.assistant.config;
+
+import com.mentalhealth.assistant.websocket.ChangeFeedHandler;
+import com.mentalhealth.assistant.websocket.ChangeFeedHandshakeInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    @Autowired
+    private ChangeFeedHandler changeFeedHandler;
+
+    @Autowired
+    private ChangeFeedHandshakeInterceptor changeFeedHandshakeInterceptor;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(changeFeedHandler, "/ws/changes")
+                .addInterceptors(changeFeedHandshakeInterceptor)
+                .setAllowedOrigins("http://localhost:3000");
+    }
+}
@@ -0,0 +1,49 @@
+package com.mentalhealth.assistant.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factories for the application's own background executors. When
+ * spring.threads.virtual.enabled is set on a Java 21 runtime, background work
+ * runs on virtual threads just like request handling; otherwise named platform
+ * threads are used. Pool sizes and queue bounds are unaffected either way.
+ */
+@Component
+public class WorkerThreadFactory {
+    private static final Logger logger = LoggerFactory.getLogger(WorkerThreadFactory.class);
+
+    private final boolean virtual;
+
+    public WorkerThreadFactory(Environment environment) {
+        this.virtual = Threading.VIRTUAL.isActive(environment);
+        if (!virtual && environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            logger.warn("Virtual threads requested but not available on Java {}, using platform threads",
+                    System.getProperty("java.version"));
+        }
+    }
+
+    /**
+     * Create a thread factory
+     * 
+     * @param prefix the thread name prefix
+     * @return a virtual or platform thread factory
+     */
+    public ThreadFactory create(String prefix) {
+        if (virtual) {
+            return new VirtualThreadTaskExecutor(prefix).getVirtualThreadFactory();
+        }
+        return new CustomizableThreadFactory(prefix);
+    }
+
+    public boolean isVirtual() {
+        return virtual;
+    }
+}
@@ -4,11 +4,14 @@ import com.mentalhealth.assistant.dto.JwtResponse;
 import com.mentalhealth.assistant.dto.LoginRequest;
 import com.mentalhealth.assistant.dto.RegisterRequest;
 import com.mentalhealth.assistant.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @CrossOrigin(origins = "*", maxAge = 3600)
 @RestController
 @RequestMapping("/api/auth")
@@ -18,21 +21,22 @@ public class AuthController {
     private AuthService authService;
     
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
-        boolean isRegistered = authService.registerUser(registerRequest);
-        
-        if (!isRegistered) {
-            // Determine the exact error (username or email conflict)
-            // This could be improved by having the service return more specific error information
-            return ResponseEntity.badRequest().body("Error: Username or email is already in use!");
-        }
-        
-        return ResponseEntity.ok("User registered successfully!");
+    public CompletableFuture<ResponseEntity<?>> registerUser(@Valid @RequestBody RegisterRequest registerRequest,
+                                                             HttpServletRequest request) {
+        return authService.register(registerRequest, request.getRemoteAddr()).thenApply(isRegistered -> {
+            if (!isRegistered) {
+                // Determine the exact error (username or email conflict)
+                // This could be improved by having the service return more specific error information
+                return ResponseEntity.badRequest().body("Error: Username or email is already in use!");
+            }
+            
+            return ResponseEntity.ok("User registered successfully!");
+        });
     }
     
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@Valid @RequestBody LoginRequest loginRequest) {
-        JwtResponse jwtResponse = authService.authenticateUser(loginRequest);
-        return ResponseEntity.ok(jwtResponse);
+    public CompletableFuture<ResponseEntity<JwtResponse>> authenticateUser(@Valid @RequestBody LoginRequest loginRequest,
+                                                                           HttpServletRequest request) {
+        return authService.login(loginRequest, request.getRemoteAddr()).thenApply(ResponseEntity::ok);
     }
 }
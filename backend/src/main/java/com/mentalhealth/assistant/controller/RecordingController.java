@@ -0,0 +1,166 @@
+package com.mentalhealth.assistant.controller;
+
+import com.mentalhealth.assistant.dto.RecordingUploadDto;
+import com.mentalhealth.assistant.dto.RecordingUploadRequest;
+import com.mentalhealth.assistant.model.RecordingUpload;
+import com.mentalhealth.assistant.service.RecordingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sessions/{sessionId}/recording")
+public class RecordingController {
+
+    public static final String UPLOAD_OFFSET_HEADER = "Upload-Offset";
+
+    // Tomcat request attributes that hand a file region to the connector for sendfile
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    @Autowired
+    private RecordingService recordingService;
+
+    /**
+     * Play back a session recording. Supports a single byte range for seeking and
+     * conditional requests via ETag and Last-Modified. When the connector supports
+     * sendfile it sends the file region itself without copying it into the JVM;
+     * otherwise the region is copied to the response through a small, fixed-size
+     * heap buffer, so memory use does not grow with the recording.
+     */
+    @GetMapping
+    public void getRecording(@PathVariable Long sessionId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        RecordingUpload recording = recordingService.getRecording(sessionId);
+        Path file = recordingService.recordingFile(recording);
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        // A completed upload is never rewritten, so its id identifies the content
+        String etag = "\"" + recording.getId() + "\"";
+
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(RecordingService.playbackContentType(recording));
+
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request, etag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            // Multiple ranges are answered with the full content
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                try {
+                    start = range.getRangeStart(length);
+                    end = range.getRangeEnd(length);
+                } catch (IllegalArgumentException e) {
+                    start = length;
+                }
+                if (start >= length || start > end) {
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                    return;
+                }
+                response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if (count <= 0 || "HEAD".equals(request.getMethod())) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, end + 1);
+            return;
+        }
+
+        // The servlet stream is not a file or socket channel, so this is a buffered copy, not zero-copy
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                long transferred = channel.transferTo(position, end + 1 - position, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    @PostMapping("/uploads")
+    public ResponseEntity<RecordingUploadDto> createUpload(@PathVariable Long sessionId,
+                                                           @Valid @RequestBody RecordingUploadRequest request) throws IOException {
+        RecordingUploadDto upload = recordingService.createUpload(sessionId, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(UPLOAD_OFFSET_HEADER, String.valueOf(upload.getReceivedBytes()))
+                .body(upload);
+    }
+
+    @GetMapping("/uploads/{uploadId}")
+    public ResponseEntity<RecordingUploadDto> getUpload(@PathVariable Long sessionId, @PathVariable String uploadId) {
+        RecordingUploadDto upload = recordingService.getUpload(sessionId, uploadId);
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET_HEADER, String.valueOf(upload.getReceivedBytes()))
+                .body(upload);
+    }
+
+    @PutMapping(value = "/uploads/{uploadId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<RecordingUploadDto> uploadChunk(@PathVariable Long sessionId,
+                                                          @PathVariable String uploadId,
+                                                          @RequestHeader(UPLOAD_OFFSET_HEADER) long offset,
+                                                          HttpServletRequest request) throws IOException {
+        RecordingUploadDto upload = recordingService.uploadChunk(sessionId, uploadId, offset, request.getInputStream());
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET_HEADER, String.valueOf(upload.getReceivedBytes()))
+                .body(upload);
+    }
+
+    // If-Range holds either an entity tag or a date; a mismatch means the client wants the whole file
+    private boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
+        }
+        try {
+            return lastModified / 1000 <= request.getDateHeader(HttpHeaders.IF_RANGE) / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
@@ -1,13 +1,33 @@
 package com.mentalhealth.assistant.controller;
 
+import com.mentalhealth.assistant.dto.SessionCalendarEntry;
 import com.mentalhealth.assistant.dto.SessionDto;
+import com.mentalhealth.assistant.dto.SessionImportResult;
+import com.mentalhealth.assistant.dto.SessionPage;
+import com.mentalhealth.assistant.dto.SessionPatch;
+import com.mentalhealth.assistant.dto.SessionSearchHit;
 import com.mentalhealth.assistant.model.SessionStatus;
+import com.mentalhealth.assistant.service.SessionExportService;
+import com.mentalhealth.assistant.service.SessionImportService;
 import com.mentalhealth.assistant.service.SessionService;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -15,19 +35,83 @@ import java.util.Map;
 @RequestMapping("/api/sessions")
 public class SessionController {
 
+    // Clients may keep responses but must revalidate them (If-None-Match) on every use
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
     @Autowired
     private SessionService sessionService;
 
+    @Autowired
+    private SessionImportService sessionImportService;
+
+    @Autowired
+    private SessionExportService sessionExportService;
+
     @GetMapping
-    public ResponseEntity<List<SessionDto>> getAllSessions() {
-        List<SessionDto> sessions = sessionService.getAllSessions();
-        return ResponseEntity.ok(sessions);
+    public void getAllSessions(WebRequest webRequest, HttpServletResponse response) throws IOException {
+        if (notModified(webRequest, response, sessionService.getCollectionETag("all"))) {
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        sessionService.writeAllSessions(response.getOutputStream(), false);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void streamAllSessions(WebRequest webRequest, HttpServletResponse response) throws IOException {
+        if (notModified(webRequest, response, sessionService.getCollectionETag("all-ndjson"))) {
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        sessionService.writeAllSessions(response.getOutputStream(), true);
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<SessionPage> getSessionPage(@RequestParam(required = false) String cursor,
+                                                      @RequestParam int limit,
+                                                      WebRequest webRequest) {
+        String etag = sessionService.getCollectionETag("page");
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        SessionPage page = sessionService.getSessionPage(cursor, limit);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(page);
+    }
+
+    @GetMapping("/calendar")
+    public ResponseEntity<List<SessionCalendarEntry>> getCalendar(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            WebRequest webRequest) {
+        String etag = sessionService.getCollectionETag("calendar");
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        List<SessionCalendarEntry> entries = sessionService.getCalendar(start, end);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(entries);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportSessions(@RequestParam(defaultValue = "csv") String format,
+                                                                @RequestParam(defaultValue = "false") boolean gzip) {
+        StreamingResponseBody body = sessionExportService.exportSessions(format, gzip);
+        boolean csv = "csv".equalsIgnoreCase(format);
+        String filename = "sessions." + (csv ? "csv" : "ndjson") + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(filename).build().toString())
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : csv ? MediaType.parseMediaType("text/csv") : MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<SessionDto> getSessionById(@PathVariable Long id) {
+    public ResponseEntity<SessionDto> getSessionById(@PathVariable Long id, WebRequest webRequest) {
+        String etag = sessionService.getSessionETag(id);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         SessionDto session = sessionService.getSessionById(id);
-        return ResponseEntity.ok(session);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(session);
     }
 
     @PostMapping
@@ -36,12 +120,35 @@ public class SessionController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdSession);
     }
 
+    @PostMapping(value = "/import", consumes = "text/csv")
+    public ResponseEntity<SessionImportResult> importCsv(InputStream body) throws IOException {
+        SessionImportResult result = sessionImportService.importCsv(body);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<SessionImportResult> importNdjson(InputStream body) throws IOException {
+        SessionImportResult result = sessionImportService.importNdjson(body);
+        return ResponseEntity.ok(result);
+    }
+
     @PutMapping("/{id}")
-    public ResponseEntity<SessionDto> updateSession(@PathVariable Long id, @RequestBody SessionDto sessionDto) {
-        SessionDto updatedSession = sessionService.updateSession(id, sessionDto);
+    public ResponseEntity<SessionDto> updateSession(@PathVariable Long id, @RequestBody SessionDto sessionDto,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = sessionDto.getVersion() != null ? sessionDto.getVersion() : parseVersion(id, ifMatch);
+        SessionDto updatedSession = sessionService.updateSession(id, sessionDto, expectedVersion);
         return ResponseEntity.ok(updatedSession);
     }
 
+    @PatchMapping("/{id}")
+    public ResponseEntity<Void> patchSession(@PathVariable Long id,
+                                             @Valid @RequestBody SessionPatch patch,
+                                             @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = patch.getVersion() != null ? patch.getVersion() : parseVersion(id, ifMatch);
+        long version = sessionService.patchSession(id, patch, expectedVersion);
+        return ResponseEntity.noContent().eTag(SessionService.sessionETag(id, version)).build();
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteSession(@PathVariable Long id) {
         sessionService.deleteSession(id);
@@ -49,14 +156,55 @@ public class SessionController {
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<SessionDto>> getSessionsByStatus(@PathVariable SessionStatus status) {
+    public ResponseEntity<List<SessionDto>> getSessionsByStatus(@PathVariable SessionStatus status,
+                                                                WebRequest webRequest) {
+        String etag = sessionService.getCollectionETag("status");
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<SessionDto> sessions = sessionService.getSessionsByStatus(status);
-        return ResponseEntity.ok(sessions);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(sessions);
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<SessionSearchHit>> searchSessions(@RequestParam("q") String query,
+                                                                 @RequestParam(defaultValue = "10") int limit) {
+        List<SessionSearchHit> hits = sessionService.searchSessions(query, limit);
+        return ResponseEntity.ok(hits);
     }
 
     @GetMapping("/stats")
-    public ResponseEntity<Map<String, Long>> getSessionStats() {
+    public ResponseEntity<Map<String, Long>> getSessionStats(WebRequest webRequest) {
+        String etag = sessionService.getCollectionETag("stats");
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         Map<String, Long> stats = sessionService.getSessionStats();
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(stats);
+    }
+
+    // The JSON and NDJSON lists share a URL, so caches must key on Accept as well
+    private boolean notModified(WebRequest webRequest, HttpServletResponse response, String etag) {
+        response.setHeader(HttpHeaders.CACHE_CONTROL, REVALIDATE.getHeaderValue());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return webRequest.checkNotModified(etag);
+    }
+
+    // The version from an If-Match tag issued by getSessionById; every update must be based on one
+    private static long parseVersion(Long id, String ifMatch) {
+        if (ifMatch == null) {
+            throw new ResponseStatusException(HttpStatus.PRECONDITION_REQUIRED,
+                    "A version or an If-Match header is required");
+        }
+        String prefix = "\"" + id + ".";
+        String tag = ifMatch.trim();
+        if (tag.startsWith(prefix) && tag.endsWith("\"")) {
+            try {
+                return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // Falls through to the failed precondition
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.PRECONDITION_FAILED, "If-Match does not match this session");
     }
 }
@@ -0,0 +1,37 @@
+package com.mentalhealth.assistant.controller;
+
+import com.mentalhealth.assistant.dto.CreateSummaryRequest;
+import com.mentalhealth.assistant.dto.SummaryDto;
+import com.mentalhealth.assistant.dto.SummaryRequestDto;
+import com.mentalhealth.assistant.service.SummaryService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/summaries")
+public class SummaryController {
+
+    @Autowired
+    private SummaryService summaryService;
+
+    @PostMapping
+    public ResponseEntity<SummaryRequestDto> createSummary(@Valid @RequestBody CreateSummaryRequest request) {
+        SummaryRequestDto summaryRequest = summaryService.requestSummary(request.getTranscriptionId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(summaryRequest);
+    }
+
+    @GetMapping("/requests/{transcriptionId}")
+    public ResponseEntity<SummaryRequestDto> getRequest(@PathVariable String transcriptionId) {
+        SummaryRequestDto summaryRequest = summaryService.getRequest(transcriptionId);
+        return ResponseEntity.ok(summaryRequest);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<SummaryDto> getSummary(@PathVariable String id) {
+        SummaryDto summary = summaryService.getSummary(id);
+        return ResponseEntity.ok(summary);
+    }
+}
@@ -0,0 +1,37 @@
+package com.mentalhealth.assistant.controller;
+
+import com.mentalhealth.assistant.dto.TranscriptionDto;
+import com.mentalhealth.assistant.dto.TranscriptionJobDto;
+import com.mentalhealth.assistant.dto.TranscriptionRequest;
+import com.mentalhealth.assistant.service.TranscriptionService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/transcriptions")
+public class TranscriptionController {
+
+    @Autowired
+    private TranscriptionService transcriptionService;
+
+    @PostMapping
+    public ResponseEntity<TranscriptionJobDto> createTranscription(@Valid @RequestBody TranscriptionRequest request) {
+        TranscriptionJobDto job = transcriptionService.createJob(request);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<TranscriptionJobDto> getJob(@PathVariable String jobId) {
+        TranscriptionJobDto job = transcriptionService.getJob(jobId);
+        return ResponseEntity.ok(job);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<TranscriptionDto> getTranscription(@PathVariable String id) {
+        TranscriptionDto transcription = transcriptionService.getTranscription(id);
+        return ResponseEntity.ok(transcription);
+    }
+}
@@ -0,0 +1,20 @@
+package com.mentalhealth.assistant.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.mentalhealth.assistant.model.SessionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ChangeFeedMessage {
+    private String type;
+    private Long sessionId;
+    private SessionStatus status;
+    private SessionStatus previousStatus;
+    private TranscriptionJobDto transcriptionJob;
+    private SummaryRequestDto summaryRequest;
+}
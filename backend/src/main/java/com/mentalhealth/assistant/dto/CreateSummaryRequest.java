@@ -0,0 +1,14 @@
+package com.mentalhealth.assistant.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CreateSummaryRequest {
+    @NotBlank
+    private String transcriptionId;
+}
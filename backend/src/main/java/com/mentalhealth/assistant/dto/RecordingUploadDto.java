@@ -0,0 +1,19 @@
+package com.mentalhealth.assistant.dto;
+
+import com.mentalhealth.assistant.model.UploadStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordingUploadDto {
+    private String id;
+    private Long sessionId;
+    private String contentType;
+    private Long totalSize;
+    private Long receivedBytes;
+    private UploadStatus status;
+    private String recordingUrl;
+}
@@ -0,0 +1,20 @@
+package com.mentalhealth.assistant.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecordingUploadRequest {
+    @NotBlank
+    private String contentType;
+
+    @NotNull
+    @Positive
+    private Long totalSize;
+}
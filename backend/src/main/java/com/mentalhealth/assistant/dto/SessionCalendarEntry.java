@@ -0,0 +1,19 @@
+package com.mentalhealth.assistant.dto;
+
+import com.mentalhealth.assistant.model.SessionStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionCalendarEntry {
+    private Long id;
+    private String patientName;
+    private LocalDateTime date;
+    private Integer duration;
+    private SessionStatus status;
+}
@@ -23,4 +23,5 @@ public class SessionDto {
     private Long userId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 }
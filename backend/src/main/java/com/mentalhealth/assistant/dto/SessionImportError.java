@@ -0,0 +1,13 @@
+package com.mentalhealth.assistant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionImportError {
+    private long line;
+    private String message;
+}
@@ -0,0 +1,16 @@
+package com.mentalhealth.assistant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionImportResult {
+    private long imported;
+    private long failed;
+    private List<SessionImportError> errors;
+}
@@ -0,0 +1,15 @@
+package com.mentalhealth.assistant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionPage {
+    private List<SessionDto> items;
+    private String nextCursor;
+}
@@ -0,0 +1,28 @@
+package com.mentalhealth.assistant.dto;
+
+import com.mentalhealth.assistant.model.SessionStatus;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Partial session update; fields left null are not changed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SessionPatch {
+    @Size(min = 1, max = 255)
+    private String patientName;
+    private LocalDateTime date;
+    @Positive
+    private Integer duration;
+    private SessionStatus status;
+    private String notes;
+    // Version the change is based on; may be sent as an If-Match ETag instead
+    private Long version;
+}
@@ -0,0 +1,20 @@
+package com.mentalhealth.assistant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SummaryDto {
+    private String id;
+    private Long sessionId;
+    private String transcriptionId;
+    private String text;
+    private List<String> keyPoints;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,22 @@
+package com.mentalhealth.assistant.dto;
+
+import com.mentalhealth.assistant.model.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SummaryRequestDto {
+    private String transcriptionId;
+    private Long sessionId;
+    private JobStatus status;
+    private Integer attempts;
+    private String lastError;
+    private String summaryId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
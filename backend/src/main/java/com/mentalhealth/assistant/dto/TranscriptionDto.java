@@ -0,0 +1,17 @@
+package com.mentalhealth.assistant.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TranscriptionDto {
+    private String id;
+    private Long sessionId;
+    private String text;
+    private LocalDateTime createdAt;
+}
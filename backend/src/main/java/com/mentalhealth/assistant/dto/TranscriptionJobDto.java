@@ -0,0 +1,23 @@
+package com.mentalhealth.assistant.dto;
+
+import com.mentalhealth.assistant.model.JobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TranscriptionJobDto {
+    private String id;
+    private Long sessionId;
+    private JobStatus status;
+    private Integer progress;
+    private Integer attempts;
+    private String lastError;
+    private String transcriptionId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,14 @@
+package com.mentalhealth.assistant.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TranscriptionRequest {
+    @NotNull
+    private Long sessionId;
+}
@@ -0,0 +1,14 @@
+package com.mentalhealth.assistant.event;
+
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Published on this node when another node changed transcription jobs or summary
+ * requests of these users. Only the owners travel between nodes, not the jobs.
+ */
+@Value
+public class RemoteJobChangeEvent {
+    Set<Long> userIds;
+}
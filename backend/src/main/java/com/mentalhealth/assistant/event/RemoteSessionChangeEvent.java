@@ -0,0 +1,16 @@
+package com.mentalhealth.assistant.event;
+
+import lombok.Value;
+
+import java.util.Set;
+
+/**
+ * Published on this node when another node committed changes to these users' sessions.
+ * Their in-memory views here (collection version, statistics, search index) must be
+ * refreshed from the database. The change is already committed and the event may arrive
+ * while another transaction completes on the same thread, so apply it right away.
+ */
+@Value
+public class RemoteSessionChangeEvent {
+    Set<Long> userIds;
+}
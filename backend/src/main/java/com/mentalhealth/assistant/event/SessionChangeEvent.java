@@ -0,0 +1,17 @@
+package com.mentalhealth.assistant.event;
+
+import com.mentalhealth.assistant.model.SessionStatus;
+import lombok.Value;
+
+/**
+ * Published whenever a session is created, updated or deleted, and additionally
+ * when an update moves it to another status
+ */
+@Value
+public class SessionChangeEvent {
+    Long userId;
+    Long sessionId;
+    SessionChangeType type;
+    SessionStatus status;
+    SessionStatus previousStatus;
+}
@@ -0,0 +1,8 @@
+package com.mentalhealth.assistant.event;
+
+public enum SessionChangeType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    DELETED
+}
@@ -0,0 +1,13 @@
+package com.mentalhealth.assistant.event;
+
+import com.mentalhealth.assistant.dto.SummaryRequestDto;
+import lombok.Value;
+
+/**
+ * Published whenever a summary request is queued, picked up or finishes
+ */
+@Value
+public class SummaryRequestEvent {
+    Long userId;
+    SummaryRequestDto request;
+}
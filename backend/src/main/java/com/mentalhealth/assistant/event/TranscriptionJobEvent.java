@@ -0,0 +1,13 @@
+package com.mentalhealth.assistant.event;
+
+import com.mentalhealth.assistant.dto.TranscriptionJobDto;
+import lombok.Value;
+
+/**
+ * Published whenever a transcription job is queued, started, advances or finishes
+ */
+@Value
+public class TranscriptionJobEvent {
+    Long userId;
+    TranscriptionJobDto job;
+}
@@ -0,0 +1,8 @@
+package com.mentalhealth.assistant.model;
+
+public enum JobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
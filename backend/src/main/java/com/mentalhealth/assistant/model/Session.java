@@ -1,6 +1,11 @@
 package com.mentalhealth.assistant.model;
 
+import com.mentalhealth.assistant.config.SecondLevelCacheConfig;
+import com.mentalhealth.assistant.service.SessionChangeListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -11,11 +16,21 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "sessions")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.SESSIONS_REGION)
+@EntityListeners(SessionChangeListener.class)
+@Table(name = "sessions", indexes = {
+        @Index(name = "idx_sessions_user_date", columnList = "user_id, date, id")
+})
 public class Session {
 
+    public static final String ID_SEQUENCE = "sessions_seq";
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Sequence ids (pooled, 50 per round trip) keep JDBC insert batching available
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(nullable = false)
@@ -52,6 +67,12 @@ public class Session {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Optimistic lock; bulk updates must increment it themselves. The default fills in existing rows.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,49 @@
+package com.mentalhealth.assistant.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "summaries", indexes = {
+        @Index(name = "idx_summaries_session", columnList = "session_id")
+})
+public class Summary {
+
+    @Id
+    private String id;
+
+    @Column(name = "session_id", nullable = false)
+    private Long sessionId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "transcription_id", nullable = false)
+    private String transcriptionId;
+
+    @Column(nullable = false, length = 65536)
+    private String text;
+
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "summary_key_points", joinColumns = @JoinColumn(name = "summary_id"))
+    @OrderColumn(name = "position")
+    @Column(name = "key_point", length = 1000)
+    private List<String> keyPoints = new ArrayList<>();
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,87 @@
+package com.mentalhealth.assistant.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending or finished summary of one transcription. Keyed by the transcription
+ * id, so the database rejects a second request for the same transcription.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "summary_requests", indexes = {
+        @Index(name = "idx_summary_requests_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_summary_requests_session", columnList = "session_id")
+})
+public class SummaryRequest implements Persistable<String> {
+
+    @Id
+    @Column(name = "transcription_id")
+    private String transcriptionId;
+
+    @Column(name = "session_id", nullable = false)
+    private Long sessionId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobStatus status;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "summary_id")
+    private String summaryId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // Always insert new requests instead of merging, so duplicates fail on the primary key
+    @Transient
+    private boolean newRequest = true;
+
+    @Override
+    public String getId() {
+        return transcriptionId;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRequest;
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PostLoad
+    @PostPersist
+    protected void markNotNew() {
+        newRequest = false;
+    }
+}
@@ -0,0 +1,71 @@
+package com.mentalhealth.assistant.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "transcription_jobs", indexes = {
+        @Index(name = "idx_transcription_jobs_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_transcription_jobs_session", columnList = "session_id")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_transcription_jobs_active_session", columnNames = "active_session_id")
+})
+public class TranscriptionJob {
+
+    @Id
+    private String id;
+
+    @Column(name = "session_id", nullable = false)
+    private Long sessionId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    // The session ID while the job is QUEUED or RUNNING, null once it has finished. Unique, so the
+    // database allows one active job per session; portable where partial unique indexes are not.
+    @Column(name = "active_session_id")
+    private Long activeSessionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private JobStatus status;
+
+    @Column(nullable = false)
+    private Integer progress; // percent
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "transcription_id")
+    private String transcriptionId;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
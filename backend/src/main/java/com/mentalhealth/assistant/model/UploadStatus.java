@@ -0,0 +1,6 @@
+package com.mentalhealth.assistant.model;
+
+public enum UploadStatus {
+    IN_PROGRESS,
+    COMPLETED
+}
@@ -0,0 +1,41 @@
+package com.mentalhealth.assistant.repository;
+
+import com.mentalhealth.assistant.model.RecordingUpload;
+import com.mentalhealth.assistant.model.UploadStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface RecordingUploadRepository extends JpaRepository<RecordingUpload, String> {
+    Optional<RecordingUpload> findByIdAndSessionIdAndUserId(String id, Long sessionId, Long userId);
+    List<RecordingUpload> findBySessionId(Long sessionId);
+    List<RecordingUpload> findBySessionIdAndStatus(Long sessionId, UploadStatus status);
+
+    @Query("SELECT u FROM RecordingUpload u WHERE u.status = 'IN_PROGRESS' AND u.updatedAt < :cutoff ORDER BY u.updatedAt")
+    List<RecordingUpload> findIdleUploads(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    // Deletes the upload only if no chunk arrived since it was found idle
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM RecordingUpload u WHERE u.id = :id AND u.status = 'IN_PROGRESS' AND u.updatedAt < :cutoff")
+    int deleteIfIdle(@Param("id") String id, @Param("cutoff") LocalDateTime cutoff);
+
+    // Advances the offset only if no other writer moved it in the meantime
+    @Modifying
+    @Transactional
+    @Query("UPDATE RecordingUpload u SET u.receivedBytes = :received, u.updatedAt = :now "
+            + "WHERE u.id = :id AND u.receivedBytes = :expected AND u.status = 'IN_PROGRESS'")
+    int advanceOffset(@Param("id") String id,
+                      @Param("expected") long expected,
+                      @Param("received") long received,
+                      @Param("now") LocalDateTime now);
+}
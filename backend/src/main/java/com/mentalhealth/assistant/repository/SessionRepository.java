@@ -1,19 +1,117 @@
 package com.mentalhealth.assistant.repository;
 
+import com.mentalhealth.assistant.dto.SessionCalendarEntry;
+import com.mentalhealth.assistant.dto.SessionDto;
 import com.mentalhealth.assistant.model.Session;
 import com.mentalhealth.assistant.model.SessionStatus;
 import com.mentalhealth.assistant.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface SessionRepository extends JpaRepository<Session, Long> {
     List<Session> findByUser(User user);
     List<Session> findByUserAndStatus(User user, SessionStatus status);
     List<Session> findByUserAndDateBetween(User user, LocalDateTime start, LocalDateTime end);
-    List<Session> findByPatientNameContainingIgnoreCase(String patientName);
     Long countByUserAndStatus(User user, SessionStatus status);
+    boolean existsByIdAndUserId(Long id, Long userId);
+    Optional<Session> findByIdAndUserId(Long id, Long userId);
+
+    // One statement, no load first; bypasses entity listeners, so the caller records the change
+    @Modifying
+    @Query("DELETE FROM Session s WHERE s.id = :id AND s.user.id = :userId")
+    int deleteByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Background workers link their results with single UPDATEs instead of flushing a loaded
+    // entity, whose version check would fail whenever the owner changes the session meanwhile
+    @Modifying
+    @Query("UPDATE Session s SET s.transcriptionId = :transcriptionId, s.version = s.version + 1, "
+            + "s.updatedAt = :now WHERE s.id = :id")
+    int updateTranscriptionId(@Param("id") Long id, @Param("transcriptionId") String transcriptionId,
+                              @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Session s SET s.summaryId = :summaryId, s.version = s.version + 1, s.updatedAt = :now "
+            + "WHERE s.id = :id")
+    int updateSummaryId(@Param("id") Long id, @Param("summaryId") String summaryId, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Session s SET s.recordingUrl = :recordingUrl, s.version = s.version + 1, s.updatedAt = :now "
+            + "WHERE s.id = :id")
+    int updateRecordingUrl(@Param("id") Long id, @Param("recordingUrl") String recordingUrl,
+                           @Param("now") LocalDateTime now);
+
+    @Query("SELECT s.user.id AS userId, s.status AS status, COUNT(s) AS count FROM Session s "
+            + "GROUP BY s.user.id, s.status")
+    List<SessionStatusCount> countGroupedByUserAndStatus();
+
+    @Query("SELECT s.user.id AS userId, s.status AS status, COUNT(s) AS count FROM Session s "
+            + "WHERE s.user.id = :userId GROUP BY s.user.id, s.status")
+    List<SessionStatusCount> countGroupedByStatus(@Param("userId") Long userId);
+
+    // Calendar window over idx_sessions_user_date; selects only the columns the calendar shows
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.mentalhealth.assistant.dto.SessionCalendarEntry(s.id, s.patientName, s.date, s.duration, s.status) "
+            + "FROM Session s WHERE s.user.id = :userId AND s.date >= :start AND s.date < :end "
+            + "ORDER BY s.date, s.id")
+    List<SessionCalendarEntry> findCalendarEntries(@Param("userId") Long userId,
+                                                   @Param("start") LocalDateTime start,
+                                                   @Param("end") LocalDateTime end);
+
+    @Query("SELECT s.id AS id, s.user.id AS userId, s.patientName AS patientName, s.notes AS notes, "
+            + "s.date AS date, s.status AS status FROM Session s")
+    List<SessionSearchRow> findAllSearchRows();
+
+    @Query("SELECT s.id AS id, s.user.id AS userId, s.patientName AS patientName, s.notes AS notes, "
+            + "s.date AS date, s.status AS status FROM Session s WHERE s.user.id = :userId")
+    List<SessionSearchRow> findSearchRowsByUserId(@Param("userId") Long userId);
+
+    // Read paths build SessionDto straight from the row; no managed entities, snapshots or user proxies
+    String SELECT_SESSION_DTO = "SELECT new com.mentalhealth.assistant.dto.SessionDto(s.id, s.patientName, s.date, "
+            + "s.duration, s.status, s.notes, s.recordingUrl, s.transcriptionId, s.summaryId, s.user.id, "
+            + "s.createdAt, s.updatedAt, s.version) FROM Session s ";
+
+    // Per-user finders from here on use the query cache; any committed write to sessions invalidates them
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT s.version FROM Session s WHERE s.id = :id AND s.user.id = :userId")
+    Optional<Long> findVersionByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_SESSION_DTO + "WHERE s.id = :id AND s.user.id = :userId")
+    Optional<SessionDto> findDtoByIdAndUserId(@Param("id") Long id, @Param("userId") Long userId);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_SESSION_DTO + "WHERE s.user.id = :userId AND s.status = :status ORDER BY s.date DESC, s.id DESC")
+    List<SessionDto> findDtosByUserIdAndStatus(@Param("userId") Long userId, @Param("status") SessionStatus status);
+
+    // Keyset pagination ordered by (date, id) descending, backed by idx_sessions_user_date
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_SESSION_DTO + "WHERE s.user.id = :userId ORDER BY s.date DESC, s.id DESC")
+    List<SessionDto> findDtosByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_SESSION_DTO + "WHERE s.user.id = :userId "
+            + "AND (s.date < :date OR (s.date = :date AND s.id < :id)) "
+            + "ORDER BY s.date DESC, s.id DESC")
+    List<SessionDto> findDtosByUserIdAfter(@Param("userId") Long userId,
+                                           @Param("date") LocalDateTime date,
+                                           @Param("id") Long id,
+                                           Pageable pageable);
+
+    // Forward-only cursor; must be consumed inside a transaction and closed by the caller
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query(SELECT_SESSION_DTO + "WHERE s.user.id = :userId ORDER BY s.date DESC, s.id DESC")
+    Stream<SessionDto> streamDtosByUserId(@Param("userId") Long userId);
 }
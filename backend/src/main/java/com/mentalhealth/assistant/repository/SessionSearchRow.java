@@ -0,0 +1,17 @@
+package com.mentalhealth.assistant.repository;
+
+import com.mentalhealth.assistant.model.SessionStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Searchable fields of a session, used to build the search index
+ */
+public interface SessionSearchRow {
+    Long getId();
+    Long getUserId();
+    String getPatientName();
+    String getNotes();
+    LocalDateTime getDate();
+    SessionStatus getStatus();
+}
@@ -0,0 +1,12 @@
+package com.mentalhealth.assistant.repository;
+
+import com.mentalhealth.assistant.model.SessionStatus;
+
+/**
+ * Row of a per-user, per-status session count
+ */
+public interface SessionStatusCount {
+    Long getUserId();
+    SessionStatus getStatus();
+    long getCount();
+}
@@ -0,0 +1,77 @@
+package com.mentalhealth.assistant.repository;
+
+import com.mentalhealth.assistant.model.JobStatus;
+import com.mentalhealth.assistant.model.SummaryRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SummaryRequestRepository extends JpaRepository<SummaryRequest, String> {
+    Optional<SummaryRequest> findByTranscriptionIdAndUserId(String transcriptionId, Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SummaryRequest r WHERE r.sessionId = :sessionId")
+    int deleteBySessionId(@Param("sessionId") Long sessionId);
+
+    @Query("SELECT r.transcriptionId FROM SummaryRequest r WHERE r.status = 'QUEUED' AND r.nextAttemptAt <= :now "
+            + "ORDER BY r.nextAttemptAt")
+    List<String> findDueTranscriptionIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SummaryRequest r SET r.status = 'RUNNING', r.attempts = r.attempts + 1, r.updatedAt = :now "
+            + "WHERE r.transcriptionId = :transcriptionId AND r.status = 'QUEUED'")
+    int claim(@Param("transcriptionId") String transcriptionId, @Param("now") LocalDateTime now);
+
+    // Completes the request only if this batch's claim, identified by its attempt number, is still current
+    @Modifying
+    @Transactional
+    @Query("UPDATE SummaryRequest r SET r.status = 'COMPLETED', r.lastError = null, r.summaryId = :summaryId, "
+            + "r.updatedAt = :now WHERE r.transcriptionId = :transcriptionId AND r.status = 'RUNNING' "
+            + "AND r.attempts = :attempt")
+    int complete(@Param("transcriptionId") String transcriptionId, @Param("attempt") int attempt,
+                 @Param("summaryId") String summaryId, @Param("now") LocalDateTime now);
+
+    // Requeues or fails the request only if this batch's claim is still current
+    @Modifying
+    @Transactional
+    @Query("UPDATE SummaryRequest r SET r.status = :status, r.nextAttemptAt = :nextAttemptAt, "
+            + "r.lastError = :lastError, r.updatedAt = :now WHERE r.transcriptionId = :transcriptionId "
+            + "AND r.status = 'RUNNING' AND r.attempts = :attempt")
+    int fail(@Param("transcriptionId") String transcriptionId, @Param("attempt") int attempt,
+             @Param("status") JobStatus status, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+             @Param("lastError") String lastError, @Param("now") LocalDateTime now);
+
+    // Renews the claim on requests in batches this node is still working on
+    @Modifying
+    @Transactional
+    @Query("UPDATE SummaryRequest r SET r.updatedAt = :now WHERE r.transcriptionId IN :transcriptionIds "
+            + "AND r.status = 'RUNNING'")
+    int renewClaims(@Param("transcriptionIds") Collection<String> transcriptionIds, @Param("now") LocalDateTime now);
+
+    // Requests claimed by a node that died before storing the outcome will never finish on their own
+    @Modifying
+    @Transactional
+    @Query("UPDATE SummaryRequest r SET r.status = 'QUEUED', r.updatedAt = :now "
+            + "WHERE r.status = 'RUNNING' AND r.updatedAt < :cutoff AND r.attempts < :maxAttempts")
+    int requeueExpired(@Param("cutoff") LocalDateTime cutoff, @Param("maxAttempts") int maxAttempts,
+                       @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE SummaryRequest r SET r.status = 'FAILED', r.lastError = 'Lease expired on the last attempt', "
+            + "r.updatedAt = :now WHERE r.status = 'RUNNING' AND r.updatedAt < :cutoff AND r.attempts >= :maxAttempts")
+    int failExpired(@Param("cutoff") LocalDateTime cutoff, @Param("maxAttempts") int maxAttempts,
+                    @Param("now") LocalDateTime now);
+}
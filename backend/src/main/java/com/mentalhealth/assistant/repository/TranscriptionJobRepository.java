@@ -0,0 +1,82 @@
+package com.mentalhealth.assistant.repository;
+
+import com.mentalhealth.assistant.model.JobStatus;
+import com.mentalhealth.assistant.model.TranscriptionJob;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TranscriptionJobRepository extends JpaRepository<TranscriptionJob, String> {
+    Optional<TranscriptionJob> findByIdAndUserId(String id, Long userId);
+    Optional<TranscriptionJob> findFirstBySessionIdAndStatusIn(Long sessionId, Collection<JobStatus> statuses);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TranscriptionJob j WHERE j.sessionId = :sessionId")
+    int deleteBySessionId(@Param("sessionId") Long sessionId);
+
+    @Query("SELECT j.id FROM TranscriptionJob j WHERE j.status = 'QUEUED' AND j.nextAttemptAt <= :now "
+            + "ORDER BY j.nextAttemptAt")
+    List<String> findDueJobIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Only one worker can move a job from QUEUED to RUNNING
+    @Modifying
+    @Transactional
+    @Query("UPDATE TranscriptionJob j SET j.status = 'RUNNING', j.attempts = j.attempts + 1, j.updatedAt = :now "
+            + "WHERE j.id = :id AND j.status = 'QUEUED'")
+    int claim(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TranscriptionJob j SET j.status = 'QUEUED', j.attempts = j.attempts - 1, j.updatedAt = :now "
+            + "WHERE j.id = :id AND j.status = 'RUNNING'")
+    int release(@Param("id") String id, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE TranscriptionJob j SET j.progress = :progress, j.updatedAt = :now "
+            + "WHERE j.id = :id AND j.status = 'RUNNING'")
+    int updateProgress(@Param("id") String id, @Param("progress") int progress, @Param("now") LocalDateTime now);
+
+    // Completes the job only if this worker's claim, identified by its attempt number, is still current
+    @Modifying
+    @Transactional
+    @Query("UPDATE TranscriptionJob j SET j.status = 'COMPLETED', j.activeSessionId = null, j.progress = 100, "
+            + "j.lastError = null, j.transcriptionId = :transcriptionId, j.updatedAt = :now "
+            + "WHERE j.id = :id AND j.status = 'RUNNING' AND j.attempts = :attempt")
+    int complete(@Param("id") String id, @Param("attempt") int attempt,
+                 @Param("transcriptionId") String transcriptionId, @Param("now") LocalDateTime now);
+
+    // Renews the claim on jobs this node is still working on
+    @Modifying
+    @Transactional
+    @Query("UPDATE TranscriptionJob j SET j.updatedAt = :now WHERE j.id IN :ids AND j.status = 'RUNNING'")
+    int renewClaims(@Param("ids") Collection<String> ids, @Param("now") LocalDateTime now);
+
+    // Jobs whose worker stopped renewing its claim, e.g. because its node died, will never finish on their own
+    @Modifying
+    @Transactional
+    @Query("UPDATE TranscriptionJob j SET j.status = 'QUEUED', j.progress = 0, j.updatedAt = :now "
+            + "WHERE j.status = 'RUNNING' AND j.updatedAt < :cutoff AND j.attempts < :maxAttempts")
+    int requeueExpired(@Param("cutoff") LocalDateTime cutoff, @Param("maxAttempts") int maxAttempts,
+                       @Param("now") LocalDateTime now);
+
+    // An expired job with no attempts left may be the one taking its nodes down, so it is not retried
+    @Modifying
+    @Transactional
+    @Query("UPDATE TranscriptionJob j SET j.status = 'FAILED', j.activeSessionId = null, "
+            + "j.lastError = 'Lease expired on the last attempt', j.updatedAt = :now "
+            + "WHERE j.status = 'RUNNING' AND j.updatedAt < :cutoff AND j.attempts >= :maxAttempts")
+    int failExpired(@Param("cutoff") LocalDateTime cutoff, @Param("maxAttempts") int maxAttempts,
+                    @Param("now") LocalDateTime now);
+}
@@ -0,0 +1,21 @@
+package com.mentalhealth.assistant.repository;
+
+import com.mentalhealth.assistant.model.Transcription;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@Repository
+public interface TranscriptionRepository extends JpaRepository<Transcription, String> {
+    Optional<Transcription> findByIdAndUserId(String id, Long userId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Transcription t WHERE t.sessionId = :sessionId")
+    int deleteBySessionId(@Param("sessionId") Long sessionId);
+}
@@ -0,0 +1,74 @@
+package com.mentalhealth.assistant.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder whose cost is chosen for the hardware it runs on. A stored hash with
+ * a lower cost reports that it needs re-encoding, so passwords are strengthened as users
+ * sign in; a higher cost is kept, so nodes or restarts that calibrate differently never
+ * downgrade hashes or flip them back and forth. Calibration is for a single node; a
+ * cluster should fix the cost with app.password.strength.
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+    private static final Logger logger = LoggerFactory.getLogger(CalibratedBCryptPasswordEncoder.class);
+
+    private static final Pattern BCRYPT_HASH = Pattern.compile("\\A\\$2[abxy]?\\$(\\d\\d)\\$");
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    /**
+     * Pick the highest cost whose verify time stays within the target. Each cost step
+     * doubles the work, so the time is measured once at the minimum cost and extrapolated.
+     * 
+     * @param targetVerifyTime the longest acceptable time to verify one password
+     * @param minStrength the lowest cost to use, even on slow hardware
+     * @param maxStrength the highest cost to use
+     * @return the calibrated encoder
+     */
+    public static CalibratedBCryptPasswordEncoder calibrate(Duration targetVerifyTime, int minStrength, int maxStrength) {
+        BCryptPasswordEncoder probe = new BCryptPasswordEncoder(minStrength);
+        String hash = probe.encode("calibration");
+        long best = Long.MAX_VALUE;
+        // Best of a few runs, so JIT warm-up and scheduling noise do not skew the estimate
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            probe.matches("calibration", hash);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int strength = minStrength;
+        long estimate = best;
+        while (strength < maxStrength && estimate * 2 <= targetVerifyTime.toNanos()) {
+            strength++;
+            estimate *= 2;
+        }
+        logger.info("BCrypt cost {} selected: about {} ms per verify (target {} ms, cost {} took {} ms); "
+                        + "set app.password.strength={} to use the same cost on every node and restart",
+                strength, estimate / 1_000_000, targetVerifyTime.toMillis(), minStrength, best / 1_000_000, strength);
+        return new CalibratedBCryptPasswordEncoder(strength);
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null || encodedPassword.isEmpty()) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_HASH.matcher(encodedPassword);
+        return !matcher.find() || Integer.parseInt(matcher.group(1)) < strength;
+    }
+}
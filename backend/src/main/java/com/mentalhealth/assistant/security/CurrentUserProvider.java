@@ -0,0 +1,49 @@
+package com.mentalhealth.assistant.security;
+
+import com.mentalhealth.assistant.model.User;
+import com.mentalhealth.assistant.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+@Component
+public class CurrentUserProvider {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    /**
+     * Get the id of the currently authenticated user
+     * 
+     * @return the authenticated user's id
+     */
+    public Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated");
+        }
+
+        // Requests authenticated by token carry the id in the cached principal
+        if (authentication.getPrincipal() instanceof UserPrincipal principal) {
+            return principal.getId();
+        }
+
+        String username = authentication.getName();
+        return userRepository.findByUsername(username)
+                .map(User::getId)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+    }
+
+    /**
+     * Get the currently authenticated user
+     * 
+     * @return an uninitialized reference to the authenticated user entity, usable as a query parameter
+     */
+    public User getCurrentUser() {
+        return userRepository.getReferenceById(getCurrentUserId());
+    }
+}
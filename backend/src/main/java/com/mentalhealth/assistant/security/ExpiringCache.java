@@ -0,0 +1,100 @@
+package com.mentalhealth.assistant.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Small bounded cache whose entries carry their own expiry time, backed by Caffeine.
+ * Reads take no lock, so request threads do not serialize on the caches that sit on
+ * every request; once the cache is full, entries are evicted by Caffeine's size policy.
+ */
+public class ExpiringCache<K, V> {
+
+    private final Cache<K, Entry<V>> entries;
+
+    public ExpiringCache(int maxSize) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new EntryExpiry<K, V>())
+                .build();
+    }
+
+    /**
+     * Get a cached value
+     *
+     * @param key the cache key
+     * @return the value, or null if absent or expired
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.getIfPresent(key);
+        return entry != null ? entry.value : null;
+    }
+
+    /**
+     * Cache a value until the given time
+     *
+     * @param key the cache key
+     * @param value the value to cache
+     * @param expiresAt expiry time in epoch milliseconds
+     */
+    public void put(K key, V value, long expiresAt) {
+        if (expiresAt <= System.currentTimeMillis()) {
+            return;
+        }
+        entries.put(key, new Entry<>(value, expiresAt));
+    }
+
+    /**
+     * Get a cached value, or create and cache one until the given time if absent or expired
+     *
+     * @param key the cache key
+     * @param factory creates the value; called while the key's entry is locked, so it must be cheap
+     * @param expiresAt expiry time in epoch milliseconds for a newly created value
+     * @return the cached or created value
+     */
+    public V computeIfAbsent(K key, Function<K, V> factory, long expiresAt) {
+        return entries.get(key, k -> new Entry<>(factory.apply(k), expiresAt)).value;
+    }
+
+    public void remove(K key) {
+        entries.invalidate(key);
+    }
+
+    public void clear() {
+        entries.invalidateAll();
+    }
+
+    public int size() {
+        return (int) entries.estimatedSize();
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+
+    // Each entry lives until its own expiry time; reads and overwrites do not extend it beyond that
+    private static class EntryExpiry<K, V> implements Expiry<K, Entry<V>> {
+
+        @Override
+        public long expireAfterCreate(K key, Entry<V> entry, long currentTime) {
+            return remainingNanos(entry);
+        }
+
+        @Override
+        public long expireAfterUpdate(K key, Entry<V> entry, long currentTime, long currentDuration) {
+            return remainingNanos(entry);
+        }
+
+        @Override
+        public long expireAfterRead(K key, Entry<V> entry, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private static long remainingNanos(Entry<?> entry) {
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(0, entry.expiresAt - System.currentTimeMillis()));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.mentalhealth.assistant.security;
+
+import com.mentalhealth.assistant.config.LoginProperties;
+import com.mentalhealth.assistant.exception.RetryLaterException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fixed-window limits on authentication attempts per client address and per
+ * username, checked on the request thread before any password work is queued.
+ * Counters live in a bounded cache, so a flood of distinct keys cannot grow memory.
+ */
+@Component
+public class LoginRateLimiter {
+
+    @Autowired
+    private LoginProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ExpiringCache<String, Window> windows;
+    private Counter addressRejections;
+    private Counter usernameRejections;
+
+    @PostConstruct
+    public void init() {
+        windows = new ExpiringCache<>(properties.getRateLimitTrackedKeys());
+        addressRejections = rejectionCounter("rate_limit_address");
+        usernameRejections = rejectionCounter("rate_limit_username");
+    }
+
+    /**
+     * Count an attempt from a client address
+     * 
+     * @param address the client address
+     * @throws RetryLaterException with 429 if the address is over its limit
+     */
+    public void checkAddress(String address) {
+        check("ip:" + address, properties.getMaxAttemptsPerAddress(), addressRejections);
+    }
+
+    /**
+     * Count an attempt from a client address against a username
+     * 
+     * @param address the client address
+     * @param username the username being signed in to
+     * @throws RetryLaterException with 429 if either is over its limit
+     */
+    public void checkLogin(String address, String username) {
+        checkAddress(address);
+        if (username != null) {
+            check("user:" + username.toLowerCase(Locale.ROOT), properties.getMaxAttemptsPerUsername(), usernameRejections);
+        }
+    }
+
+    private void check(String key, int limit, Counter rejections) {
+        if (limit <= 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long windowEnd = now + properties.getRateLimitWindow().toMillis();
+        Window window = windows.computeIfAbsent(key, k -> new Window(windowEnd), windowEnd);
+        if (window.attempts.incrementAndGet() > limit) {
+            rejections.increment();
+            throw new RetryLaterException(HttpStatus.TOO_MANY_REQUESTS, "Too many sign-in attempts",
+                    (window.endsAt - now + 999) / 1000);
+        }
+    }
+
+    private Counter rejectionCounter(String reason) {
+        return Counter.builder("app.auth.rejected")
+                .description("Authentication attempts refused before any password check")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static class Window {
+        final long endsAt;
+        final AtomicInteger attempts = new AtomicInteger();
+
+        Window(long endsAt) {
+            this.endsAt = endsAt;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.mentalhealth.assistant.security;
+
+import com.mentalhealth.assistant.config.LoginProperties;
+import com.mentalhealth.assistant.exception.RetryLaterException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Small fixed pool that runs password hashing (logins and registrations) off the
+ * request threads. BCrypt is CPU bound, so the pool is sized to the cores and its
+ * queue is bounded: under a login burst, excess attempts are refused with 503
+ * straight away instead of occupying the threads that serve session traffic.
+ */
+@Component
+public class PasswordHashingExecutor {
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+
+    @Autowired
+    private LoginProperties properties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private ThreadPoolExecutor executor;
+    private Timer queueWaitTimer;
+    private Counter rejectedCounter;
+
+    @PostConstruct
+    public void start() {
+        int threads = properties.getHashingThreads() > 0
+                ? properties.getHashingThreads()
+                : Runtime.getRuntime().availableProcessors();
+        // Platform threads on purpose: the work is CPU bound and must not multiply under virtual threads
+        executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("password-hashing-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        queueWaitTimer = Timer.builder("app.auth.hashing.wait")
+                .description("Time a password hashing task waited for a free thread")
+                .register(meterRegistry);
+        rejectedCounter = Counter.builder("app.auth.rejected")
+                .description("Authentication attempts refused before any password check")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        Gauge.builder("app.auth.hashing.queue", executor, e -> e.getQueue().size())
+                .description("Password hashing tasks waiting for a thread")
+                .register(meterRegistry);
+        logger.info("Password hashing executor started with {} threads and queue capacity {}",
+                threads, properties.getQueueCapacity());
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Run a task that hashes or verifies a password
+     * 
+     * @param task the task
+     * @return the task's result, completed on a hashing thread
+     * @throws RetryLaterException with 503 if the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWaitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return task.get();
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new RetryLaterException(HttpStatus.SERVICE_UNAVAILABLE, "Too many sign-in attempts in progress", 1);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.mentalhealth.assistant.security;
+
+import com.mentalhealth.assistant.config.PrincipalCacheProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Function;
+
+/**
+ * Username to principal cache used on the authenticated request path.
+ * Entries hold authorities, the enabled flag and the user id, never the password hash.
+ */
+@Component
+public class PrincipalCache {
+
+    private final PrincipalCacheProperties properties;
+    private final ExpiringCache<String, UserPrincipal> principals;
+
+    public PrincipalCache(PrincipalCacheProperties properties) {
+        this.properties = properties;
+        this.principals = new ExpiringCache<>(properties.getMaxSize());
+    }
+
+    /**
+     * Get the cached principal for a user, loading it on a miss
+     * 
+     * @param username the username
+     * @param loader loads the principal from the database
+     * @return the cached principal
+     */
+    public UserPrincipal get(String username, Function<String, UserPrincipal> loader) {
+        UserPrincipal principal = principals.get(username);
+        if (principal == null) {
+            principal = loader.apply(username).withoutPassword();
+            principals.put(username, principal, System.currentTimeMillis() + properties.getTtlSeconds() * 1000);
+        }
+        return principal;
+    }
+
+    /**
+     * Drop a user's cached principal, e.g. after their roles or enabled flag changed
+     * 
+     * @param username the username
+     */
+    public void evict(String username) {
+        principals.remove(username);
+    }
+
+    public void clear() {
+        principals.clear();
+    }
+}
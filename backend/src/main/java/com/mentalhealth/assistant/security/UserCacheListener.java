@@ -0,0 +1,39 @@
+package com.mentalhealth.assistant.security;
+
+import com.mentalhealth.assistant.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Evicts a user's cached principal whenever the user row is updated or deleted;
+ * role changes arrive through {@link UserRolesListener}.
+ * The entry is evicted at flush and again after commit, so a concurrent request
+ * cannot re-cache the old state in between. Bulk JPQL updates bypass entity
+ * listeners and must call {@link PrincipalCache#evict(String)} themselves.
+ */
+@Component
+public class UserCacheListener {
+
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        String username = user.getUsername();
+        principalCache.evict(username);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    principalCache.evict(username);
+                }
+            });
+        }
+    }
+}
@@ -2,40 +2,80 @@ package com.mentalhealth.assistant.security;
 
 import com.mentalhealth.assistant.model.User;
 import com.mentalhealth.assistant.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
-
-import java.util.List;
-import java.util.stream.Collectors;
+import org.springframework.transaction.support.TransactionTemplate;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+    private static final Logger logger = LoggerFactory.getLogger(UserDetailsServiceImpl.class);
+
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Load a user with credentials from the database. Used for password
+     * authentication, so it always reads the current state and never the
+     * second-level or query cache.
+     * Not read-only on purpose: that would route it to a replica, and a user must
+     * be able to sign in right after registering.
+     */
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        User user = userRepository.findCredentialsByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
+
+        return UserPrincipal.build(user);
+    }
+
+    /**
+     * Store a re-encoded password after a successful login whose hash used an outdated
+     * algorithm or cost. Called by the authentication provider with the new hash.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findCredentialsByUsername(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        logger.debug("Re-encoded password for user {}", user.getId());
+        return UserPrincipal.build(user);
+    }
+
+    /**
+     * Load a user's principal for an already authenticated request, from the cache when possible.
+     * A miss is loaded in a read-write transaction of its own, started explicitly because a call
+     * on this bean from within does not pass through the transactional proxy. Not read-only for
+     * the same reason as {@link #loadUserByUsername(String)}: a replica may not have a new user yet.
+     * 
+     * @param username the username from a verified token
+     * @return the principal, without credentials
+     */
+    public UserPrincipal loadPrincipal(String username) throws UsernameNotFoundException {
+        return principalCache.get(username, name ->
+                new TransactionTemplate(transactionManager).execute(status -> loadCachedPrincipal(name)));
+    }
+
+    // Through the cacheable finder: the token path never checks the password hash
+    private UserPrincipal loadCachedPrincipal(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found with username: " + username));
 
-        List<SimpleGrantedAuthority> authorities = user.getRoles().stream()
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
-
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                user.isEnabled(),
-                true, // account non-expired
-                true, // credentials non-expired
-                true, // account non-locked
-                authorities
-        );
+        return UserPrincipal.build(user);
     }
 }
@@ -0,0 +1,49 @@
+package com.mentalhealth.assistant.security;
+
+import com.mentalhealth.assistant.model.User;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Authenticated user details that also carry the database id, so services
+ * can scope queries to the current user without looking the user up again.
+ */
+public class UserPrincipal extends org.springframework.security.core.userdetails.User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Long id;
+
+    public UserPrincipal(Long id, String username, String password, boolean enabled,
+                         Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, enabled,
+                true, // account non-expired
+                true, // credentials non-expired
+                true, // account non-locked
+                authorities);
+        this.id = id;
+    }
+
+    public static UserPrincipal build(User user) {
+        List<SimpleGrantedAuthority> authorities = user.getRoles().stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        return new UserPrincipal(user.getId(), user.getUsername(), user.getPassword(), user.isEnabled(), authorities);
+    }
+
+    /**
+     * Copy of this principal without the password hash, safe to share between requests
+     */
+    public UserPrincipal withoutPassword() {
+        return new UserPrincipal(id, getUsername(), "", isEnabled(), getAuthorities());
+    }
+
+    public Long getId() {
+        return id;
+    }
+}
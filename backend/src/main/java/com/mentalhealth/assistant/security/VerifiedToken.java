@@ -0,0 +1,15 @@
+package com.mentalhealth.assistant.security;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Immutable result of verifying a JWT. Safe to share between requests presenting
+ * the same token, unlike the parser's mutable claims.
+ */
+@Value
+public class VerifiedToken {
+    String subject;
+    Instant expiration;
+}
@@ -6,11 +6,15 @@ import com.mentalhealth.assistant.dto.RegisterRequest;
 import com.mentalhealth.assistant.model.User;
 import com.mentalhealth.assistant.repository.UserRepository;
 import com.mentalhealth.assistant.security.JwtUtils;
+import com.mentalhealth.assistant.security.LoginRateLimiter;
+import com.mentalhealth.assistant.security.PasswordHashingExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -18,6 +22,7 @@ import org.springframework.stereotype.Service;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,6 +40,40 @@ public class AuthService {
     @Autowired
     private JwtUtils jwtUtils;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+    
+    @Autowired
+    private LoginRateLimiter loginRateLimiter;
+    
+    /**
+     * Register a new user on the password hashing pool, subject to the per-address limit
+     * 
+     * @param registerRequest the registration details
+     * @param clientAddress the client's address
+     * @return completes with true if registration was successful, false otherwise
+     */
+    public CompletableFuture<Boolean> register(RegisterRequest registerRequest, String clientAddress) {
+        loginRateLimiter.checkAddress(clientAddress);
+        return passwordHashingExecutor.submit(() -> registerUser(registerRequest));
+    }
+    
+    /**
+     * Authenticate a user on the password hashing pool, subject to the per-address
+     * and per-username limits, so request threads never wait on BCrypt
+     * 
+     * @param loginRequest the login credentials
+     * @param clientAddress the client's address
+     * @return completes with the token and user details
+     */
+    public CompletableFuture<JwtResponse> login(LoginRequest loginRequest, String clientAddress) {
+        loginRateLimiter.checkLogin(clientAddress, loginRequest.getUsername());
+        return passwordHashingExecutor.submit(() -> authenticateUser(loginRequest));
+    }
+    
     /**
      * Register a new user
      * 
@@ -76,10 +115,17 @@ public class AuthService {
      * @return JwtResponse containing the token and user details
      */
     public JwtResponse authenticateUser(LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
-            new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(loginRequest.getUsername(), loginRequest.getPassword()));
+            sample.stop(loginTimer("success"));
+        } catch (AuthenticationException e) {
+            sample.stop(loginTimer("failure"));
+            throw e;
+        }
         
-        SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = jwtUtils.generateJwtToken(authentication);
         
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
@@ -98,4 +144,12 @@ public class AuthService {
             roles
         );
     }
+    
+    // User lookup plus password check for a login attempt
+    private Timer loginTimer(String outcome) {
+        return Timer.builder("app.auth.login")
+            .description("Credential verification for a login attempt")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
 }
@@ -0,0 +1,374 @@
+package com.mentalhealth.assistant.service;
+
+import com.mentalhealth.assistant.config.RecordingStorageProperties;
+import com.mentalhealth.assistant.dto.RecordingUploadDto;
+import com.mentalhealth.assistant.dto.RecordingUploadRequest;
+import com.mentalhealth.assistant.event.SessionChangeType;
+import com.mentalhealth.assistant.model.RecordingUpload;
+import com.mentalhealth.assistant.model.UploadStatus;
+import com.mentalhealth.assistant.repository.RecordingUploadRepository;
+import com.mentalhealth.assistant.repository.SessionRepository;
+import com.mentalhealth.assistant.security.CurrentUserProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Chunked, resumable recording uploads. Each chunk is streamed from the request
+ * straight into the partial file at its offset, so no recording is ever buffered
+ * in memory. The acknowledged offset is persisted after the chunk is flushed to
+ * disk, which lets a client resume from it after a dropped connection.
+ */
+@Service
+public class RecordingService {
+    private static final Logger logger = LoggerFactory.getLogger(RecordingService.class);
+
+    private static final String PART_SUFFIX = ".part";
+
+    @Autowired
+    private RecordingUploadRepository uploadRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private CurrentUserProvider currentUserProvider;
+
+    @Autowired
+    private RecordingStorageProperties properties;
+
+    @Autowired
+    private SessionBulkWriteRecorder sessionBulkWriteRecorder;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Uploads with a chunk currently being written on this node
+    private final Set<String> activeUploads = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Start a recording upload for a session
+     * 
+     * @param sessionId the session ID
+     * @param request the recording content type and total size
+     * @return the new upload, expecting its first chunk at offset 0
+     */
+    public RecordingUploadDto createUpload(Long sessionId, RecordingUploadRequest request) throws IOException {
+        Long userId = currentUserProvider.getCurrentUserId();
+        if (!sessionRepository.existsByIdAndUserId(sessionId, userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Session not found");
+        }
+        if (request.getTotalSize() > properties.getMaxFileSize().toBytes()) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE, "Recording exceeds the maximum file size");
+        }
+        String contentType = audioContentType(request.getContentType());
+        if (contentType == null) {
+            throw new ResponseStatusException(HttpStatus.UNSUPPORTED_MEDIA_TYPE, "Recordings must have an audio/* content type");
+        }
+
+        RecordingUpload upload = new RecordingUpload();
+        upload.setId(UUID.randomUUID().toString());
+        upload.setSessionId(sessionId);
+        upload.setUserId(userId);
+        upload.setContentType(contentType);
+        upload.setTotalSize(request.getTotalSize());
+        upload.setReceivedBytes(0L);
+        upload.setStatus(UploadStatus.IN_PROGRESS);
+        upload.setStoragePath(userId + "/" + sessionId + "/" + upload.getId());
+
+        Path partFile = partFile(upload);
+        Files.createDirectories(partFile.getParent());
+        Files.deleteIfExists(partFile);
+        Files.createFile(partFile);
+
+        return toDto(uploadRepository.save(upload));
+    }
+
+    /**
+     * Get the state of an upload, including the offset to resume from
+     * 
+     * @param sessionId the session ID
+     * @param uploadId the upload ID
+     * @return the upload
+     */
+    public RecordingUploadDto getUpload(Long sessionId, String uploadId) {
+        return toDto(findUpload(sessionId, uploadId));
+    }
+
+    /**
+     * Append a chunk to an upload. The chunk must start at the upload's current
+     * offset; the upload completes once all bytes have been received.
+     * 
+     * @param sessionId the session ID
+     * @param uploadId the upload ID
+     * @param offset the offset of the first byte in the chunk
+     * @param body the chunk content
+     * @return the upload with its new offset
+     */
+    public RecordingUploadDto uploadChunk(Long sessionId, String uploadId, long offset, InputStream body) throws IOException {
+        RecordingUpload upload = findUpload(sessionId, uploadId);
+
+        if (upload.getStatus() == UploadStatus.COMPLETED && offset == upload.getTotalSize()) {
+            // Retry of the final chunk after the response was lost
+            return toDto(upload);
+        }
+        if (upload.getStatus() != UploadStatus.IN_PROGRESS || offset != upload.getReceivedBytes()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Upload offset mismatch, expected " + upload.getReceivedBytes());
+        }
+        if (!activeUploads.add(uploadId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Another chunk is being written to this upload");
+        }
+
+        try {
+            long received = offset;
+            if (offset < upload.getTotalSize()) {
+                received = writeChunk(upload, offset, body);
+                if (received > offset
+                        && uploadRepository.advanceOffset(uploadId, offset, received, LocalDateTime.now()) == 0) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload was modified concurrently");
+                }
+                upload.setReceivedBytes(received);
+            }
+
+            if (received == upload.getTotalSize()) {
+                complete(upload);
+            }
+            return toDto(upload);
+        } finally {
+            activeUploads.remove(uploadId);
+        }
+    }
+
+    /**
+     * Get the completed recording of a session owned by the current user
+     * 
+     * @param sessionId the session ID
+     * @return the completed upload
+     */
+    public RecordingUpload getRecording(Long sessionId) {
+        if (!sessionRepository.existsByIdAndUserId(sessionId, currentUserProvider.getCurrentUserId())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Session not found");
+        }
+
+        RecordingUpload recording = findCompletedRecording(sessionId);
+        if (recording == null || !Files.isRegularFile(recordingFile(recording))) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Recording not found");
+        }
+        return recording;
+    }
+
+    /**
+     * Get the stored recording file of a session, if its upload has completed
+     * 
+     * @param sessionId the session ID
+     * @return the completed upload, or null if the session has no recording
+     */
+    public RecordingUpload findCompletedRecording(Long sessionId) {
+        return uploadRepository.findBySessionIdAndStatus(sessionId, UploadStatus.COMPLETED).stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Resolve the file of a completed recording
+     * 
+     * @param upload the completed upload
+     * @return the recording file
+     */
+    public Path recordingFile(RecordingUpload upload) {
+        return Paths.get(properties.getStorageDir()).resolve(upload.getStoragePath());
+    }
+
+    /**
+     * Remove every stored recording and pending upload of a session. The files are
+     * deleted once the current transaction commits, so a rolled-back delete keeps them.
+     * 
+     * @param sessionId the session ID
+     */
+    public void deleteRecordings(Long sessionId) {
+        List<RecordingUpload> uploads = uploadRepository.findBySessionId(sessionId);
+        uploadRepository.deleteAll(uploads);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    uploads.forEach(RecordingService.this::deleteFiles);
+                }
+            });
+        } else {
+            uploads.forEach(this::deleteFiles);
+        }
+    }
+
+    /**
+     * Delete unfinished uploads that have not received a chunk within the configured TTL,
+     * together with their partial files
+     * 
+     * @param batchSize the maximum number of uploads to delete
+     * @return the number of uploads deleted
+     */
+    public int deleteAbandonedUploads(int batchSize) {
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getAbandonedUploadTtl());
+        int deleted = 0;
+        for (RecordingUpload upload : uploadRepository.findIdleUploads(cutoff, PageRequest.of(0, batchSize))) {
+            if (!activeUploads.contains(upload.getId()) && uploadRepository.deleteIfIdle(upload.getId(), cutoff) == 1) {
+                deleteFiles(upload);
+                deleted++;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Get the content type to serve a recording with. The type is echoed back to
+     * browsers, so anything that is not audio is served as opaque bytes.
+     * 
+     * @param upload the completed upload
+     * @return the content type
+     */
+    public static String playbackContentType(RecordingUpload upload) {
+        String contentType = audioContentType(upload.getContentType());
+        return contentType != null ? contentType : MediaType.APPLICATION_OCTET_STREAM_VALUE;
+    }
+
+    public static String recordingUrl(Long sessionId) {
+        return "/api/sessions/" + sessionId + "/recording";
+    }
+
+    private long writeChunk(RecordingUpload upload, long offset, InputStream body) throws IOException {
+        long end = offset + Math.min(upload.getTotalSize() - offset, properties.getMaxChunkSize().toBytes());
+
+        try (FileChannel channel = FileChannel.open(partFile(upload), StandardOpenOption.WRITE);
+             ReadableByteChannel source = Channels.newChannel(body)) {
+            if (channel.size() < offset) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Stored data is shorter than the upload offset");
+            }
+            // Discard bytes past the acknowledged offset left behind by an interrupted chunk
+            channel.truncate(offset);
+
+            long position = offset;
+            while (position < end) {
+                long transferred = channel.transferFrom(source, position, end - position);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+
+            if (position == end && body.read() != -1) {
+                channel.truncate(offset);
+                throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                        "Chunk exceeds the maximum chunk size or the declared total size");
+            }
+
+            channel.force(false);
+            return position;
+        }
+    }
+
+    // The file is moved first: that is idempotent, so a retried final chunk finishes what a failed one started.
+    // The database steps then commit together, and replaced recordings are deleted only after they have.
+    private void complete(RecordingUpload upload) throws IOException {
+        Path partFile = partFile(upload);
+        if (Files.exists(partFile)) {
+            Files.move(partFile, recordingFile(upload), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            // A session keeps only its latest recording
+            List<RecordingUpload> previous = uploadRepository.findBySessionIdAndStatus(upload.getSessionId(), UploadStatus.COMPLETED)
+                    .stream()
+                    .filter(other -> !other.getId().equals(upload.getId()))
+                    .collect(Collectors.toList());
+            uploadRepository.deleteAll(previous);
+
+            upload.setStatus(UploadStatus.COMPLETED);
+            uploadRepository.save(upload);
+
+            if (sessionRepository.updateRecordingUrl(upload.getSessionId(), recordingUrl(upload.getSessionId()),
+                    LocalDateTime.now()) > 0) {
+                sessionBulkWriteRecorder.record(upload.getUserId(), upload.getSessionId(), SessionChangeType.UPDATED, null);
+            }
+
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    previous.forEach(RecordingService.this::deleteFiles);
+                }
+            });
+        });
+        logger.info("Completed recording upload {} for session {} ({} bytes)",
+                upload.getId(), upload.getSessionId(), upload.getTotalSize());
+    }
+
+    private RecordingUpload findUpload(Long sessionId, String uploadId) {
+        return uploadRepository.findByIdAndSessionIdAndUserId(uploadId, sessionId, currentUserProvider.getCurrentUserId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found"));
+    }
+
+    private Path partFile(RecordingUpload upload) {
+        return Paths.get(properties.getStorageDir()).resolve(upload.getStoragePath() + PART_SUFFIX);
+    }
+
+    private void deleteFiles(RecordingUpload upload) {
+        try {
+            Files.deleteIfExists(partFile(upload));
+            Files.deleteIfExists(recordingFile(upload));
+        } catch (IOException e) {
+            logger.warn("Could not delete recording files for upload {}: {}", upload.getId(), e.getMessage());
+        }
+    }
+
+    // Only a concrete audio type is kept, without parameters; null for anything else
+    private static String audioContentType(String contentType) {
+        try {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (!"audio".equals(mediaType.getType()) || mediaType.isWildcardSubtype()) {
+                return null;
+            }
+            return new MediaType(mediaType.getType(), mediaType.getSubtype()).toString();
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+    }
+
+    private RecordingUploadDto toDto(RecordingUpload upload) {
+        return new RecordingUploadDto(
+                upload.getId(),
+                upload.getSessionId(),
+                upload.getContentType(),
+                upload.getTotalSize(),
+                upload.getReceivedBytes(),
+                upload.getStatus(),
+                upload.getStatus() == UploadStatus.COMPLETED ? recordingUrl(upload.getSessionId()) : null
+        );
+    }
+}
@@ -0,0 +1,65 @@
+package com.mentalhealth.assistant.service;
+
+import com.mentalhealth.assistant.config.RecordingStorageProperties;
+import com.mentalhealth.assistant.config.WorkerThreadFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically deletes recording uploads that clients started but never finished,
+ * so their partial files do not accumulate on disk
+ */
+@Component
+public class RecordingUploadSweeper {
+    private static final Logger logger = LoggerFactory.getLogger(RecordingUploadSweeper.class);
+
+    private static final int BATCH_SIZE = 100;
+
+    @Autowired
+    private RecordingService recordingService;
+
+    @Autowired
+    private RecordingStorageProperties properties;
+
+    @Autowired
+    private WorkerThreadFactory workerThreadFactory;
+
+    private ScheduledExecutorService sweeper;
+
+    @PostConstruct
+    public void start() {
+        long intervalMillis = properties.getSweepInterval().toMillis();
+        sweeper = Executors.newSingleThreadScheduledExecutor(workerThreadFactory.create("recording-sweeper-"));
+        sweeper.scheduleWithFixedDelay(this::sweep, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        sweeper.shutdownNow();
+    }
+
+    private void sweep() {
+        try {
+            int deleted;
+            int total = 0;
+            do {
+                deleted = recordingService.deleteAbandonedUploads(BATCH_SIZE);
+                total += deleted;
+            } while (deleted == BATCH_SIZE && !Thread.currentThread().isInterrupted());
+            if (total > 0) {
+                logger.info("Deleted {} abandoned recording uploads", total);
+            }
+        } catch (Exception e) {
+            // Never let an exception cancel the scheduled sweep
+            logger.error("Recording upload sweep failed: {}", e.getMessage());
+        }
+    }
+}
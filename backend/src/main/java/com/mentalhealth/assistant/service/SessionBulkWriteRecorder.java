@@ -0,0 +1,48 @@
+package com.mentalhealth.assistant.service;
+
+import com.mentalhealth.assistant.cache.CacheInvalidator;
+import com.mentalhealth.assistant.config.ReadYourWritesTracker;
+import com.mentalhealth.assistant.event.SessionChangeEvent;
+import com.mentalhealth.assistant.event.SessionChangeType;
+import com.mentalhealth.assistant.model.Session;
+import com.mentalhealth.assistant.model.SessionStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * What {@link SessionChangeListener} does for entity writes, for bulk JPQL statements
+ * that bypass it: bumps the owner's collection version, pins the owner's reads to the
+ * primary, evicts just that session from the other nodes' caches and publishes a
+ * {@link SessionChangeEvent}. Call it in the writing transaction.
+ */
+@Component
+public class SessionBulkWriteRecorder {
+
+    @Autowired
+    private SessionVersionStore sessionVersionStore;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private CacheInvalidator cacheInvalidator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Record a bulk write to one session
+     * 
+     * @param userId the owner of the session
+     * @param sessionId the session ID
+     * @param type the kind of change
+     * @param status the new status, or null if unknown or unchanged
+     */
+    public void record(Long userId, Long sessionId, SessionChangeType type, SessionStatus status) {
+        sessionVersionStore.recordChanged(userId);
+        readYourWritesTracker.recordWrite(userId);
+        cacheInvalidator.recordBulkChange(Session.class, sessionId);
+        eventPublisher.publishEvent(new SessionChangeEvent(userId, sessionId, type, status, null));
+    }
+}
@@ -0,0 +1,54 @@
+package com.mentalhealth.assistant.service;
+
+import com.mentalhealth.assistant.config.ReadYourWritesTracker;
+import com.mentalhealth.assistant.event.SessionChangeEvent;
+import com.mentalhealth.assistant.event.SessionChangeType;
+import com.mentalhealth.assistant.model.Session;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bumps the owner's collection version, pins the owner's reads to the primary and
+ * publishes a {@link SessionChangeEvent} whenever a session row is written, whichever
+ * service writes it. Bulk JPQL updates bypass entity listeners and must do all three
+ * themselves.
+ */
+@Component
+public class SessionChangeListener {
+
+    @Autowired
+    private SessionVersionStore sessionVersionStore;
+
+    @Autowired
+    private ReadYourWritesTracker readYourWritesTracker;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void onCreate(Session session) {
+        onChange(session, SessionChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void onUpdate(Session session) {
+        onChange(session, SessionChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void onRemove(Session session) {
+        onChange(session, SessionChangeType.DELETED);
+    }
+
+    private void onChange(Session session, SessionChangeType type) {
+        Long userId = session.getUser().getId();
+        sessionVersionStore.recordChanged(userId);
+        // Background workers write sessions too; the owner should see their results right away
+        readYourWritesTracker.recordWrite(userId);
+        eventPublisher.publishEvent(new SessionChangeEvent(userId, session.getId(), type, session.getStatus(), null));
+    }
+}
@@ -0,0 +1,212 @@
+package com.mentalhealth.assistant.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mentalhealth.assistant.dto.SessionDto;
+import com.mentalhealth.assistant.model.SessionStatus;
+import com.mentalhealth.assistant.security.CurrentUserProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full session exports for audits. Rows are read through a forward-only JDBC cursor,
+ * in a read-only transaction, and written to the output as they arrive, outside any
+ * persistence context, so memory use stays flat no matter how many sessions a user has.
+ */
+@Service
+public class SessionExportService {
+
+    private static final int FETCH_SIZE = 500;
+
+    private static final String EXPORT_QUERY = "SELECT id, patient_name, date, duration, status, notes, "
+            + "recording_url, transcription_id, summary_id, user_id, created_at, updated_at, version "
+            + "FROM sessions WHERE user_id = ? ORDER BY date, id";
+
+    private static final String CSV_HEADER = "id,patientName,date,duration,status,notes,"
+            + "recordingUrl,transcriptionId,summaryId,createdAt,updatedAt";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CurrentUserProvider currentUserProvider;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Prepare an export of the current authenticated user's sessions. The user is
+     * resolved now, on the request thread; the rows are read and written later,
+     * when the returned body is streamed to the client.
+     *
+     * @param format "csv" or "ndjson"
+     * @param gzip whether to gzip the output
+     * @return the response body that writes the export
+     */
+    public StreamingResponseBody exportSessions(String format, boolean gzip) {
+        Long userId = currentUserProvider.getCurrentUserId();
+        boolean csv;
+        if ("csv".equalsIgnoreCase(format)) {
+            csv = true;
+        } else if ("ndjson".equalsIgnoreCase(format)) {
+            csv = false;
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported export format: " + format);
+        }
+
+        return out -> {
+            OutputStream target = gzip ? new GZIPOutputStream(out, 8192) : out;
+            if (csv) {
+                exportCsv(userId, target);
+            } else {
+                exportNdjson(userId, target);
+            }
+            if (target instanceof GZIPOutputStream) {
+                ((GZIPOutputStream) target).finish();
+            }
+            target.flush();
+        };
+    }
+
+    /**
+     * Write all of a user's sessions as CSV, oldest first. The column names match
+     * the bulk import format, so an export can be imported again.
+     *
+     * @param userId the user ID
+     * @param out the output stream
+     */
+    public void exportCsv(Long userId, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write("\r\n");
+        query(userId, rs -> {
+            SessionDto session = mapRow(rs);
+            try {
+                writer.write(String.valueOf(session.getId()));
+                writer.write(',');
+                writeCsvField(writer, session.getPatientName());
+                writer.write(',');
+                writeCsvField(writer, session.getDate());
+                writer.write(',');
+                writeCsvField(writer, session.getDuration());
+                writer.write(',');
+                writeCsvField(writer, session.getStatus());
+                writer.write(',');
+                writeCsvField(writer, session.getNotes());
+                writer.write(',');
+                writeCsvField(writer, session.getRecordingUrl());
+                writer.write(',');
+                writeCsvField(writer, session.getTranscriptionId());
+                writer.write(',');
+                writeCsvField(writer, session.getSummaryId());
+                writer.write(',');
+                writeCsvField(writer, session.getCreatedAt());
+                writer.write(',');
+                writeCsvField(writer, session.getUpdatedAt());
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    /**
+     * Write all of a user's sessions as newline-delimited JSON, oldest first,
+     * in the same shape as the sessions API
+     *
+     * @param userId the user ID
+     * @param out the output stream
+     */
+    public void exportNdjson(Long userId, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            generator.setRootValueSeparator(null);
+            query(userId, rs -> {
+                try {
+                    writer.writeValue(generator, mapRow(rs));
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private void query(Long userId, RowCallbackHandler handler) throws IOException {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(FETCH_SIZE);
+        // PgJDBC ignores the fetch size and reads the whole result under autocommit; a transaction
+        // turns autocommit off so it uses a cursor. Read-only also lets the replica serve it.
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        try {
+            transaction.executeWithoutResult(status -> jdbcTemplate.query(EXPORT_QUERY, handler, userId));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static SessionDto mapRow(ResultSet rs) throws SQLException {
+        SessionDto session = new SessionDto();
+        session.setId(rs.getLong("id"));
+        session.setPatientName(rs.getString("patient_name"));
+        session.setDate(toLocalDateTime(rs.getTimestamp("date")));
+        session.setDuration(rs.getInt("duration"));
+        session.setStatus(SessionStatus.valueOf(rs.getString("status")));
+        session.setNotes(rs.getString("notes"));
+        session.setRecordingUrl(rs.getString("recording_url"));
+        session.setTranscriptionId(rs.getString("transcription_id"));
+        session.setSummaryId(rs.getString("summary_id"));
+        session.setUserId(rs.getLong("user_id"));
+        session.setCreatedAt(toLocalDateTime(rs.getTimestamp("created_at")));
+        session.setUpdatedAt(toLocalDateTime(rs.getTimestamp("updated_at")));
+        session.setVersion(rs.getLong("version"));
+        return session;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+
+    private static void writeCsvField(Writer writer, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            writer.write(text);
+            return;
+        }
+        writer.write('"');
+        writer.write(text.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,479 @@
+package com.mentalhealth.assistant.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mentalhealth.assistant.dto.SessionDto;
+import com.mentalhealth.assistant.dto.SessionImportError;
+import com.mentalhealth.assistant.dto.SessionImportResult;
+import com.mentalhealth.assistant.model.Session;
+import com.mentalhealth.assistant.model.SessionStatus;
+import com.mentalhealth.assistant.model.User;
+import com.mentalhealth.assistant.security.CurrentUserProvider;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.CacheMode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Bulk import of historical sessions from CSV or NDJSON. Rows are parsed and validated
+ * as the request body streams in, and valid rows are written in chunks, each chunk in
+ * its own transaction with batched inserts. A bad row is reported and skipped; it never
+ * fails the rest of the import.
+ */
+@Service
+public class SessionImportService {
+    private static final Logger logger = LoggerFactory.getLogger(SessionImportService.class);
+
+    // Rows per transaction; a multiple of hibernate.jdbc.batch_size
+    private static final int CHUNK_SIZE = 500;
+
+    private static final int MAX_REPORTED_ERRORS = 100;
+    // Longest CSV record or NDJSON line held in memory; longer ones are skipped and rejected
+    private static final int MAX_RECORD_LENGTH = 64 * 1024;
+    // Column lengths of the sessions table
+    private static final int MAX_PATIENT_NAME_LENGTH = 255;
+    private static final int MAX_NOTES_LENGTH = 255;
+
+    @Autowired
+    private CurrentUserProvider currentUserProvider;
+
+    @Autowired
+    private SessionStatsStore sessionStatsStore;
+
+    @Autowired
+    private SessionSearchIndex sessionSearchIndex;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Import sessions from CSV. The first record is a header naming the columns;
+     * patientName, date and duration are required, status and notes are optional.
+     *
+     * @param in the CSV stream
+     * @return the number of imported and failed rows, with the first errors
+     */
+    public SessionImportResult importCsv(InputStream in) throws IOException {
+        Import batch = new Import(currentUserProvider.getCurrentUser());
+        CsvReader reader = new CsvReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        List<String> header;
+        try {
+            header = reader.next();
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid CSV header: " + e.getMessage());
+        }
+        if (header == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header is missing");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String required : List.of("patientname", "date", "duration")) {
+            if (!columns.containsKey(required)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV header must include " + required);
+            }
+        }
+
+        while (true) {
+            List<String> record;
+            try {
+                record = reader.next();
+            } catch (IllegalArgumentException e) {
+                batch.reject(reader.getRecordLine(), e.getMessage());
+                continue;
+            }
+            if (record == null) {
+                break;
+            }
+            long line = reader.getRecordLine();
+            try {
+                SessionDto row = new SessionDto();
+                row.setPatientName(column(record, columns, "patientname"));
+                row.setDate(parseDate(column(record, columns, "date")));
+                row.setDuration(parseDuration(column(record, columns, "duration")));
+                row.setStatus(parseStatus(column(record, columns, "status")));
+                row.setNotes(column(record, columns, "notes"));
+                batch.add(line, row);
+            } catch (IllegalArgumentException e) {
+                batch.reject(line, e.getMessage());
+            }
+        }
+        return batch.finish();
+    }
+
+    /**
+     * Import sessions from newline-delimited JSON, one session object per line,
+     * using the same field names as the sessions API
+     *
+     * @param in the NDJSON stream
+     * @return the number of imported and failed rows, with the first errors
+     */
+    public SessionImportResult importNdjson(InputStream in) throws IOException {
+        Import batch = new Import(currentUserProvider.getCurrentUser());
+        ObjectReader reader = objectMapper.readerFor(SessionDto.class);
+
+        LineReader lines = new LineReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        while (true) {
+            String text;
+            try {
+                text = lines.next();
+            } catch (IllegalArgumentException e) {
+                batch.reject(lines.getLine(), e.getMessage());
+                continue;
+            }
+            if (text == null) {
+                break;
+            }
+            if (text.isBlank()) {
+                continue;
+            }
+            long line = lines.getLine();
+            try {
+                batch.add(line, reader.readValue(text));
+            } catch (JsonProcessingException e) {
+                batch.reject(line, "Invalid JSON: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                batch.reject(line, e.getMessage());
+            }
+        }
+        return batch.finish();
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static LocalDateTime parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid date: " + value);
+        }
+    }
+
+    private static Integer parseDuration(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid duration: " + value);
+        }
+    }
+
+    private static SessionStatus parseStatus(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return SessionStatus.valueOf(value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid status: " + value);
+        }
+    }
+
+    /**
+     * State of one running import: the pending chunk, counters and reported errors
+     */
+    private class Import {
+        private final User user;
+        private final List<Session> chunk = new ArrayList<>(CHUNK_SIZE);
+        private final List<Long> chunkLines = new ArrayList<>(CHUNK_SIZE);
+        private final List<SessionImportError> errors = new ArrayList<>();
+        private long imported;
+        private long failed;
+
+        Import(User user) {
+            this.user = user;
+        }
+
+        void add(long line, SessionDto row) {
+            if (row.getPatientName() == null || row.getPatientName().isBlank()) {
+                throw new IllegalArgumentException("patientName is required");
+            }
+            if (row.getPatientName().trim().length() > MAX_PATIENT_NAME_LENGTH) {
+                throw new IllegalArgumentException("patientName is longer than " + MAX_PATIENT_NAME_LENGTH + " characters");
+            }
+            if (row.getNotes() != null && row.getNotes().length() > MAX_NOTES_LENGTH) {
+                throw new IllegalArgumentException("notes is longer than " + MAX_NOTES_LENGTH + " characters");
+            }
+            if (row.getDate() == null) {
+                throw new IllegalArgumentException("date is required");
+            }
+            if (row.getDuration() == null || row.getDuration() <= 0) {
+                throw new IllegalArgumentException("duration must be a positive number of minutes");
+            }
+
+            Session session = new Session();
+            session.setPatientName(row.getPatientName().trim());
+            session.setDate(row.getDate());
+            session.setDuration(row.getDuration());
+            session.setStatus(row.getStatus() != null ? row.getStatus() : SessionStatus.SCHEDULED);
+            session.setNotes(row.getNotes());
+            session.setUser(user);
+            chunk.add(session);
+            chunkLines.add(line);
+
+            if (chunk.size() == CHUNK_SIZE) {
+                flush();
+            }
+        }
+
+        void reject(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new SessionImportError(line, message));
+            }
+        }
+
+        SessionImportResult finish() {
+            flush();
+            logger.info("Imported {} sessions for user {} ({} rows rejected)", imported, user.getId(), failed);
+            return new SessionImportResult(imported, failed, errors);
+        }
+
+        private void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                write(chunk);
+                imported += chunk.size();
+            } catch (RuntimeException e) {
+                // Find the offending rows by retrying one at a time; the rest of the chunk still goes in
+                logger.warn("Failed to write import chunk of {} sessions, retrying row by row", chunk.size(), e);
+                for (int i = 0; i < chunk.size(); i++) {
+                    Session session = chunk.get(i);
+                    try {
+                        write(List.of(session));
+                        imported++;
+                    } catch (RuntimeException rowFailure) {
+                        logger.debug("Failed to write imported session from line {}", chunkLines.get(i), rowFailure);
+                        // Database messages can contain SQL and other users' values; never echo them back
+                        reject(chunkLines.get(i), "Could not be saved");
+                    }
+                }
+            }
+            chunk.clear();
+            chunkLines.clear();
+        }
+
+        private void write(List<Session> sessions) {
+            try {
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    // Imported rows are cold; keep them from pushing hot sessions out of the entity cache
+                    entityManager.unwrap(org.hibernate.Session.class).setCacheMode(CacheMode.IGNORE);
+                    for (Session session : sessions) {
+                        entityManager.persist(session);
+                        sessionStatsStore.recordCreated(user.getId(), session.getStatus());
+                        sessionSearchIndex.recordSaved(session);
+                    }
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+            } catch (RuntimeException e) {
+                // Rolled back; make the sessions transient again so they can be persisted on retry
+                for (Session session : sessions) {
+                    session.setId(null);
+                    session.setVersion(null);
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Minimal RFC 4180 reader: comma separated, double-quoted fields may contain
+     * commas, line breaks and doubled quotes. A record that is too long or ends inside
+     * a quoted field is read to its end and then rejected with an IllegalArgumentException.
+     */
+    private static class CsvReader {
+        private final Reader reader;
+        private long line = 1;
+        private long recordLine;
+        private int pending = -2;
+        private final StringBuilder field = new StringBuilder();
+        // Characters of the current field and record, including those not kept
+        private int fieldLength;
+        private int recordLength;
+
+        CsvReader(Reader reader) {
+            this.reader = new BufferedReader(reader);
+        }
+
+        long getRecordLine() {
+            return recordLine;
+        }
+
+        List<String> next() throws IOException {
+            int c = read();
+            // Skip blank lines between records
+            while (c == '\r' || c == '\n') {
+                if (c == '\n') {
+                    line++;
+                }
+                c = read();
+            }
+            if (c == -1) {
+                return null;
+            }
+            recordLine = line;
+
+            List<String> fields = new ArrayList<>();
+            field.setLength(0);
+            fieldLength = 0;
+            recordLength = 0;
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IllegalArgumentException("Quoted field is never closed");
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            append('"');
+                        } else {
+                            quoted = false;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        if (c == '\n') {
+                            line++;
+                        }
+                        append(c);
+                    }
+                } else if (c == '"' && fieldLength == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    recordLength = Math.min(recordLength + 1, MAX_RECORD_LENGTH + 1);
+                    if (recordLength <= MAX_RECORD_LENGTH) {
+                        fields.add(field.toString());
+                    }
+                    field.setLength(0);
+                    fieldLength = 0;
+                } else if (c == '\n' || c == '\r' || c == -1) {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') {
+                            pending = next;
+                        }
+                    }
+                    if (c != -1) {
+                        line++;
+                    }
+                    if (recordLength > MAX_RECORD_LENGTH) {
+                        throw new IllegalArgumentException("Record is longer than " + MAX_RECORD_LENGTH + " characters");
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    append(c);
+                }
+                c = read();
+            }
+        }
+
+        // Past the record limit the rest of the record is only scanned for its end, not kept
+        private void append(int c) {
+            fieldLength = Math.min(fieldLength + 1, MAX_RECORD_LENGTH + 1);
+            recordLength = Math.min(recordLength + 1, MAX_RECORD_LENGTH + 1);
+            if (recordLength <= MAX_RECORD_LENGTH) {
+                field.append((char) c);
+            }
+        }
+
+        private int read() throws IOException {
+            if (pending != -2) {
+                int c = pending;
+                pending = -2;
+                return c;
+            }
+            return reader.read();
+        }
+    }
+
+    /**
+     * Line reader that keeps at most MAX_RECORD_LENGTH characters of a line. A longer
+     * line is read to its end and then rejected with an IllegalArgumentException.
+     */
+    private static class LineReader {
+        private final Reader reader;
+        private final StringBuilder text = new StringBuilder();
+        private long line;
+
+        LineReader(Reader reader) {
+            this.reader = new BufferedReader(reader);
+        }
+
+        long getLine() {
+            return line;
+        }
+
+        String next() throws IOException {
+            int c = reader.read();
+            if (c == -1) {
+                return null;
+            }
+            line++;
+            text.setLength(0);
+            boolean tooLong = false;
+            while (c != '\n' && c != -1) {
+                if (text.length() < MAX_RECORD_LENGTH) {
+                    text.append((char) c);
+                } else if (c != '\r') {
+                    tooLong = true;
+                }
+                c = reader.read();
+            }
+            if (tooLong) {
+                throw new IllegalArgumentException("Line is longer than " + MAX_RECORD_LENGTH + " characters");
+            }
+            int length = text.length();
+            if (length > 0 && text.charAt(length - 1) == '\r') {
+                text.setLength(length - 1);
+            }
+            return text.toString();
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package com.mentalhealth.assistant.service;
+
+import com.mentalhealth.assistant.dto.SessionSearchHit;
+import com.mentalhealth.assistant.event.RemoteSessionChangeEvent;
+import com.mentalhealth.assistant.model.Session;
+import com.mentalhealth.assistant.model.SessionStatus;
+import com.mentalhealth.assistant.repository.SessionRepository;
+import com.mentalhealth.assistant.repository.SessionSearchRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over session patient names and notes, partitioned by user.
+ * Every word is indexed under each of its prefixes, so a typeahead query is a handful
+ * of hash lookups and a set intersection. Rebuilt from the sessions table before the
+ * application starts serving, then kept current by the write paths in {@link SessionService}.
+ * A user whose sessions changed on another node is re-read from the database on their next search.
+ */
+@Component
+public class SessionSearchIndex implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(SessionSearchIndex.class);
+
+    public static final int MAX_RESULTS = 50;
+
+    // Longer query terms are looked up by this prefix and then checked against the words
+    private static final int MAX_PREFIX_LENGTH = 12;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Comparator<Document> RANKING = Comparator
+            .comparing((Document document) -> document.date, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(document -> document.id, Comparator.reverseOrder());
+
+    private final Map<Long, UserIndex> indexByUser = new ConcurrentHashMap<>();
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Re-index every session from the database
+     */
+    public void rebuild() {
+        Map<Long, UserIndex> rebuilt = new HashMap<>();
+        int count = 0;
+        for (SessionSearchRow row : sessionRepository.findAllSearchRows()) {
+            Document document = new Document(row.getId(), row.getPatientName(), row.getNotes(),
+                    row.getDate(), row.getStatus());
+            rebuilt.computeIfAbsent(row.getUserId(), id -> new UserIndex()).put(document);
+            count++;
+        }
+
+        indexByUser.clear();
+        indexByUser.putAll(rebuilt);
+        logger.info("Indexed {} sessions for search across {} users", count, rebuilt.size());
+    }
+
+    /**
+     * Search a user's sessions by patient name and notes. Every word of the query must
+     * match the start of a word in the patient name or notes; sessions whose patient
+     * name matches come first, then the most recent.
+     *
+     * @param userId the user ID
+     * @param query the search text
+     * @param limit the maximum number of hits to return
+     * @return the matching sessions
+     */
+    public List<SessionSearchHit> search(Long userId, String query, int limit) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        UserIndex index = indexByUser.get(userId);
+        if (terms.isEmpty() || index == null) {
+            return Collections.emptyList();
+        }
+        if (index.stale) {
+            index = reload(userId, index);
+        }
+        return index.search(terms, Math.max(1, Math.min(limit, MAX_RESULTS)));
+    }
+
+    public void recordSaved(Session session) {
+        Long userId = session.getUser().getId();
+        Document document = new Document(session.getId(), session.getPatientName(), session.getNotes(),
+                session.getDate(), session.getStatus());
+        afterCommit(() -> update(userId, true, index -> index.put(document)));
+    }
+
+    /**
+     * Re-index a session after a partial update, keeping the fields that did not change
+     * 
+     * @param userId the user ID
+     * @param sessionId the session ID
+     * @param patientName the new patient name, or null if unchanged
+     * @param notes the new notes, or null if unchanged
+     * @param date the new date, or null if unchanged
+     * @param status the new status, or null if unchanged
+     */
+    public void recordPatched(Long userId, Long sessionId, String patientName, String notes,
+                              LocalDateTime date, SessionStatus status) {
+        afterCommit(() -> update(userId, false, index -> index.patch(sessionId, patientName, notes, date, status)));
+    }
+
+    public void recordDeleted(Long userId, Long sessionId) {
+        afterCommit(() -> update(userId, false, index -> index.remove(sessionId)));
+    }
+
+    @EventListener
+    public void onRemoteChange(RemoteSessionChangeEvent event) {
+        for (Long userId : event.getUserIds()) {
+            indexByUser.put(userId, UserIndex.stale());
+        }
+    }
+
+    // Re-read a user marked stale; kept only if nothing marked them stale again meanwhile
+    private UserIndex reload(Long userId, UserIndex stale) {
+        UserIndex loaded = new UserIndex();
+        for (SessionSearchRow row : sessionRepository.findSearchRowsByUserId(userId)) {
+            loaded.put(new Document(row.getId(), row.getPatientName(), row.getNotes(), row.getDate(), row.getStatus()));
+        }
+        indexByUser.replace(userId, stale, loaded);
+        return loaded;
+    }
+
+    private void update(Long userId, boolean create, Consumer<UserIndex> change) {
+        indexByUser.compute(userId, (id, index) -> {
+            if (index == null && !create) {
+                return null;
+            }
+            if (index == null) {
+                index = new UserIndex();
+            }
+            if (index.stale) {
+                // A reload in progress may have read the rows before this change; make it read again
+                return UserIndex.stale();
+            }
+            change.accept(index);
+            return index;
+        });
+    }
+
+    // Lower-case, strip accents and split into distinct words
+    static Set<String> tokenize(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) {
+            return words;
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        for (String word : SEPARATORS.split(normalized.toLowerCase(Locale.ROOT))) {
+            if (!word.isEmpty()) {
+                words.add(word);
+            }
+        }
+        return words;
+    }
+
+    private static String postingKey(String term) {
+        return term.length() > MAX_PREFIX_LENGTH ? term.substring(0, MAX_PREFIX_LENGTH) : term;
+    }
+
+    // Only apply a change once it is visible to everyone else
+    private void afterCommit(Runnable update) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    update.run();
+                }
+            });
+        } else {
+            update.run();
+        }
+    }
+
+    private static class Document {
+        final Long id;
+        final String patientName;
+        final LocalDateTime date;
+        final SessionStatus status;
+        final Set<String> nameWords;
+        final Set<String> noteWords;
+
+        Document(Long id, String patientName, String notes, LocalDateTime date, SessionStatus status) {
+            this.id = id;
+            this.patientName = patientName;
+            this.date = date;
+            this.status = status;
+            this.nameWords = tokenize(patientName);
+            this.noteWords = tokenize(notes);
+        }
+
+        // A copy with the non-null arguments replacing the current values
+        Document(Document previous, String patientName, String notes, LocalDateTime date, SessionStatus status) {
+            this.id = previous.id;
+            this.patientName = patientName != null ? patientName : previous.patientName;
+            this.date = date != null ? date : previous.date;
+            this.status = status != null ? status : previous.status;
+            this.nameWords = patientName != null ? tokenize(patientName) : previous.nameWords;
+            this.noteWords = notes != null ? tokenize(notes) : previous.noteWords;
+        }
+
+        Set<String> postingKeys() {
+            Set<String> keys = new HashSet<>();
+            addPrefixes(nameWords, keys);
+            addPrefixes(noteWords, keys);
+            return keys;
+        }
+
+        boolean matches(String term, Set<String> words) {
+            for (String word : words) {
+                if (word.startsWith(term)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static void addPrefixes(Set<String> words, Set<String> keys) {
+            for (String word : words) {
+                for (int length = 1; length <= Math.min(word.length(), MAX_PREFIX_LENGTH); length++) {
+                    keys.add(word.substring(0, length));
+                }
+            }
+        }
+    }
+
+    private static class UserIndex {
+        // Set on placeholders for users whose sessions changed on another node
+        final boolean stale;
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Document> documents = new HashMap<>();
+        private final Map<String, Set<Long>> postings = new HashMap<>();
+
+        UserIndex() {
+            this(false);
+        }
+
+        private UserIndex(boolean stale) {
+            this.stale = stale;
+        }
+
+        // Each placeholder is a distinct instance, so a reload can tell whether it was replaced
+        static UserIndex stale() {
+            return new UserIndex(true);
+        }
+
+        void put(Document document) {
+            lock.writeLock().lock();
+            try {
+                removeUnlocked(document.id);
+                documents.put(document.id, document);
+                for (String key : document.postingKeys()) {
+                    postings.computeIfAbsent(key, k -> new HashSet<>()).add(document.id);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void patch(Long id, String patientName, String notes, LocalDateTime date, SessionStatus status) {
+            lock.writeLock().lock();
+            try {
+                Document previous = documents.get(id);
+                if (previous != null) {
+                    Document document = new Document(previous, patientName, notes, date, status);
+                    removeUnlocked(id);
+                    documents.put(id, document);
+                    for (String key : document.postingKeys()) {
+                        postings.computeIfAbsent(key, k -> new HashSet<>()).add(id);
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(Long id) {
+            lock.writeLock().lock();
+            try {
+                removeUnlocked(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<SessionSearchHit> search(List<String> terms, int limit) {
+            lock.readLock().lock();
+            try {
+                // Intersect starting from the rarest term
+                List<Set<Long>> matches = new ArrayList<>();
+                for (String term : terms) {
+                    Set<Long> ids = postings.get(postingKey(term));
+                    if (ids == null) {
+                        return Collections.emptyList();
+                    }
+                    matches.add(ids);
+                }
+                matches.sort(Comparator.comparingInt(Set::size));
+
+                List<Document> nameHits = new ArrayList<>();
+                List<Document> noteHits = new ArrayList<>();
+                for (Long id : matches.get(0)) {
+                    if (!containedInAll(id, matches)) {
+                        continue;
+                    }
+                    Document document = documents.get(id);
+                    boolean inName = true;
+                    boolean found = true;
+                    for (String term : terms) {
+                        boolean name = document.matches(term, document.nameWords);
+                        inName &= name;
+                        // Terms longer than the posting key still need a full prefix check
+                        if (!name && !document.matches(term, document.noteWords)) {
+                            found = false;
+                            break;
+                        }
+                    }
+                    if (found) {
+                        (inName ? nameHits : noteHits).add(document);
+                    }
+                }
+
+                nameHits.sort(RANKING);
+                noteHits.sort(RANKING);
+                List<SessionSearchHit> hits = new ArrayList<>(Math.min(limit, nameHits.size() + noteHits.size()));
+                for (Document document : nameHits) {
+                    if (hits.size() == limit) {
+                        return hits;
+                    }
+                    hits.add(new SessionSearchHit(document.id, document.patientName, document.date, document.status, false));
+                }
+                for (Document document : noteHits) {
+                    if (hits.size() == limit) {
+                        return hits;
+                    }
+                    hits.add(new SessionSearchHit(document.id, document.patientName, document.date, document.status, true));
+                }
+                return hits;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private boolean containedInAll(Long id, List<Set<Long>> matches) {
+            for (int i = 1; i < matches.size(); i++) {
+                if (!matches.get(i).contains(id)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void removeUnlocked(Long id) {
+            Document previous = documents.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (String key : previous.postingKeys()) {
+                Set<Long> ids = postings.get(key);
+                if (ids != null) {
+                    ids.remove(id);
+                    if (ids.isEmpty()) {
+                        postings.remove(key);
+                    }
+                }
+            }
+        }
+    }
+}
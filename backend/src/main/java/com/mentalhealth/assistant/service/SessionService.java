@@ -1,83 +1,231 @@
 package com.mentalhealth.assistant.service;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mentalhealth.assistant.dto.SessionCalendarEntry;
 import com.mentalhealth.assistant.dto.SessionDto;
+import com.mentalhealth.assistant.dto.SessionPage;
+import com.mentalhealth.assistant.dto.SessionPatch;
+import com.mentalhealth.assistant.dto.SessionSearchHit;
+import com.mentalhealth.assistant.event.SessionChangeEvent;
+import com.mentalhealth.assistant.event.SessionChangeType;
 import com.mentalhealth.assistant.model.Session;
 import com.mentalhealth.assistant.model.SessionStatus;
 import com.mentalhealth.assistant.model.User;
 import com.mentalhealth.assistant.repository.SessionRepository;
-import com.mentalhealth.assistant.repository.UserRepository;
+import com.mentalhealth.assistant.security.CurrentUserProvider;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class SessionService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+    public static final int MAX_CALENDAR_DAYS = 93;
+
     @Autowired
     private SessionRepository sessionRepository;
 
     @Autowired
-    private UserRepository userRepository;
+    private CurrentUserProvider currentUserProvider;
+
+    @Autowired
+    private SessionStatsStore sessionStatsStore;
+
+    @Autowired
+    private SessionSearchIndex sessionSearchIndex;
+
+    @Autowired
+    private SessionVersionStore sessionVersionStore;
+
+    @Autowired
+    private RecordingService recordingService;
+
+    @Autowired
+    private TranscriptionService transcriptionService;
+
+    @Autowired
+    private SummaryService summaryService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private SessionBulkWriteRecorder sessionBulkWriteRecorder;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Write all sessions for the current authenticated user to the given stream,
+     * newest first, either as a JSON array or as newline-delimited JSON.
+     * Rows are read from the database cursor straight into DTOs and serialized one
+     * at a time, so memory use does not grow with the number of sessions.
+     * 
+     * @param out the response stream
+     * @param ndjson true for one JSON object per line, false for a JSON array
+     */
+    @Transactional(readOnly = true)
+    public void writeAllSessions(OutputStream out, boolean ndjson) throws IOException {
+        Long userId = currentUserProvider.getCurrentUserId();
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (Stream<SessionDto> sessions = sessionRepository.streamDtosByUserId(userId);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.setRootValueSeparator(null);
+            if (!ndjson) {
+                generator.writeStartArray();
+            }
+
+            Iterator<SessionDto> iterator = sessions.iterator();
+            while (iterator.hasNext()) {
+                writer.writeValue(generator, iterator.next());
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                }
+            }
+
+            if (!ndjson) {
+                generator.writeEndArray();
+            }
+        }
+    }
 
     /**
-     * Get the currently authenticated user
+     * Get one page of sessions for the current authenticated user, newest first.
+     * Pages are addressed by an opaque cursor on (date, id) rather than an offset,
+     * so every page costs the same regardless of how deep the client has scrolled.
      * 
-     * @return the authenticated user entity
+     * @param cursor the cursor returned with the previous page, or null for the first page
+     * @param limit the maximum number of sessions to return
+     * @return the page of session DTOs and the cursor for the next page
      */
-    private User getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        if (authentication == null || !authentication.isAuthenticated()) {
-            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "User not authenticated");
+    @Transactional(readOnly = true)
+    public SessionPage getSessionPage(String cursor, int limit) {
+        Long userId = currentUserProvider.getCurrentUserId();
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to know whether another page exists
+        PageRequest pageRequest = PageRequest.of(0, size + 1);
+
+        List<SessionDto> sessions;
+        if (cursor == null || cursor.isBlank()) {
+            sessions = sessionRepository.findDtosByUserId(userId, pageRequest);
+        } else {
+            SessionDto after = decodeCursor(cursor);
+            sessions = sessionRepository.findDtosByUserIdAfter(userId, after.getDate(), after.getId(), pageRequest);
+        }
+
+        String nextCursor = null;
+        if (sessions.size() > size) {
+            sessions = sessions.subList(0, size);
+            nextCursor = encodeCursor(sessions.get(size - 1));
         }
-        
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+        return new SessionPage(sessions, nextCursor);
     }
-    
+
     /**
-     * Get all sessions for the current authenticated user
+     * Get the current authenticated user's sessions in a date window, for calendar views.
+     * Only the fields a calendar shows are read, never notes or recording data.
      * 
-     * @return list of session DTOs
+     * @param start the start of the window, inclusive
+     * @param end the end of the window, exclusive
+     * @return the calendar entries ordered by date
+     */
+    @Transactional(readOnly = true)
+    public List<SessionCalendarEntry> getCalendar(LocalDateTime start, LocalDateTime end) {
+        if (!end.isAfter(start)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "End must be after start");
+        }
+        if (start.plusDays(MAX_CALENDAR_DAYS).isBefore(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Calendar window cannot exceed " + MAX_CALENDAR_DAYS + " days");
+        }
+        return sessionRepository.findCalendarEntries(currentUserProvider.getCurrentUserId(), start, end);
+    }
+
+    /**
+     * Get a strong ETag for one of the current authenticated user's sessions,
+     * derived from its version without loading the session. The same tag is
+     * accepted as If-Match when patching the session.
+     * 
+     * @param id the session ID
+     * @return the ETag, or null if the user has no such session
      */
-    public List<SessionDto> getAllSessions() {
-        User user = getCurrentUser();
-        List<Session> sessions = sessionRepository.findByUser(user);
-        return sessions.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+    public String getSessionETag(Long id) {
+        return sessionRepository.findVersionByIdAndUserId(id, currentUserProvider.getCurrentUserId())
+                .map(version -> sessionETag(id, version))
+                .orElse(null);
     }
 
     /**
-     * Get a session by ID
+     * Get the ETag of a session at a given version
+     * 
+     * @param id the session ID
+     * @param version the session version
+     * @return the ETag
+     */
+    public static String sessionETag(Long id, Long version) {
+        return "\"" + id + "." + version + "\"";
+    }
+
+    /**
+     * Get a strong ETag for a representation of the current authenticated user's
+     * session collection (lists, pages, statistics). It changes whenever any of the
+     * user's sessions does. Must be read before the data it tags.
+     * 
+     * @param variant distinguishes representations served from the same URL
+     * @return the ETag
+     */
+    public String getCollectionETag(String variant) {
+        Long userId = currentUserProvider.getCurrentUserId();
+        return "\"" + userId + "." + sessionVersionStore.getVersion(userId) + "." + variant + "\"";
+    }
+
+    /**
+     * Get one of the current authenticated user's sessions by ID
      * 
      * @param id the session ID
      * @return the session DTO
      */
+    @Transactional(readOnly = true)
     public SessionDto getSessionById(Long id) {
-        Session session = sessionRepository.findById(id)
+        return sessionRepository.findDtoByIdAndUserId(id, currentUserProvider.getCurrentUserId())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Session not found"));
-
-        return convertToDto(session);
     }
 
     /**
-     * Create a new session
+     * Create a new session for the current authenticated user
      * 
-     * @param sessionDto the session data
+     * @param sessionDto the session data; its user ID is ignored
      * @return the created session DTO
      */
     public SessionDto createSession(SessionDto sessionDto) {
-        User user = userRepository.findById(sessionDto.getUserId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
+        User user = currentUserProvider.getCurrentUser();
 
         Session session = new Session();
         session.setPatientName(sessionDto.getPatientName());
@@ -88,20 +236,33 @@ public class SessionService {
         session.setUser(user);
 
         Session savedSession = sessionRepository.save(session);
+        sessionStatsStore.recordCreated(user.getId(), savedSession.getStatus());
+        sessionSearchIndex.recordSaved(savedSession);
         return convertToDto(savedSession);
     }
 
     /**
-     * Update an existing session
+     * Update one of the current authenticated user's sessions. Loaded and flushed in one
+     * transaction, so the save does not merge and select the session a second time.
      * 
      * @param id the session ID
      * @param sessionDto the updated session data
+     * @param expectedVersion the version the change is based on
      * @return the updated session DTO
+     * @throws ResponseStatusException with 409 if the session has another version
      */
-    public SessionDto updateSession(Long id, SessionDto sessionDto) {
-        Session session = sessionRepository.findById(id)
+    @Transactional
+    public SessionDto updateSession(Long id, SessionDto sessionDto, long expectedVersion) {
+        Long userId = currentUserProvider.getCurrentUserId();
+        Session session = sessionRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Session not found"));
 
+        if (session.getVersion() != expectedVersion) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Session was modified by someone else; current version is " + session.getVersion());
+        }
+
+        SessionStatus previousStatus = session.getStatus();
         session.setPatientName(sessionDto.getPatientName());
         session.setDate(sessionDto.getDate());
         session.setDuration(sessionDto.getDuration());
@@ -111,20 +272,101 @@ public class SessionService {
         session.setTranscriptionId(sessionDto.getTranscriptionId());
         session.setSummaryId(sessionDto.getSummaryId());
 
-        Session updatedSession = sessionRepository.save(session);
+        Session updatedSession = sessionRepository.saveAndFlush(session);
+        sessionStatsStore.recordStatusChanged(userId, previousStatus, updatedSession.getStatus());
+        if (previousStatus != updatedSession.getStatus()) {
+            eventPublisher.publishEvent(new SessionChangeEvent(userId, id,
+                    SessionChangeType.STATUS_CHANGED, updatedSession.getStatus(), previousStatus));
+        }
+        sessionSearchIndex.recordSaved(updatedSession);
         return convertToDto(updatedSession);
     }
 
     /**
-     * Delete a session
+     * Apply a partial update to one of the current authenticated user's sessions. The
+     * supplied fields are written by a single UPDATE that only matches the expected
+     * version, so the session is never loaded and a concurrent change is never overwritten.
      * 
      * @param id the session ID
+     * @param patch the fields to change
+     * @param expectedVersion the version the change is based on
+     * @return the new version
+     * @throws ResponseStatusException with 409 if the session has another version
      */
+    @Transactional
+    public long patchSession(Long id, SessionPatch patch, long expectedVersion) {
+        Long userId = currentUserProvider.getCurrentUserId();
+        LocalDateTime now = LocalDateTime.now();
+
+        StringBuilder jpql = new StringBuilder("UPDATE Session s SET s.version = s.version + 1, s.updatedAt = :updatedAt");
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("updatedAt", now);
+        if (patch.getPatientName() != null) {
+            jpql.append(", s.patientName = :patientName");
+            parameters.put("patientName", patch.getPatientName().trim());
+        }
+        if (patch.getDate() != null) {
+            jpql.append(", s.date = :date");
+            parameters.put("date", patch.getDate());
+        }
+        if (patch.getDuration() != null) {
+            jpql.append(", s.duration = :duration");
+            parameters.put("duration", patch.getDuration());
+        }
+        if (patch.getStatus() != null) {
+            jpql.append(", s.status = :status");
+            parameters.put("status", patch.getStatus());
+        }
+        if (patch.getNotes() != null) {
+            jpql.append(", s.notes = :notes");
+            parameters.put("notes", patch.getNotes());
+        }
+        jpql.append(" WHERE s.id = :id AND s.user.id = :userId AND s.version = :version");
+
+        Query update = entityManager.createQuery(jpql.toString());
+        parameters.forEach(update::setParameter);
+        update.setParameter("id", id);
+        update.setParameter("userId", userId);
+        update.setParameter("version", expectedVersion);
+        if (update.executeUpdate() == 0) {
+            Long currentVersion = sessionRepository.findVersionByIdAndUserId(id, userId)
+                    .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Session not found"));
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Session was modified by someone else; current version is " + currentVersion);
+        }
+
+        sessionBulkWriteRecorder.record(userId, id, SessionChangeType.UPDATED, patch.getStatus());
+        if (patch.getStatus() != null) {
+            // The previous status was never read, so the user's counts are reloaded instead of adjusted
+            sessionStatsStore.recordRecount(userId);
+            eventPublisher.publishEvent(new SessionChangeEvent(userId, id, SessionChangeType.STATUS_CHANGED,
+                    patch.getStatus(), null));
+        }
+        sessionSearchIndex.recordPatched(userId, id, patch.getPatientName() != null ? patch.getPatientName().trim() : null,
+                patch.getNotes(), patch.getDate(), patch.getStatus());
+        return expectedVersion + 1;
+    }
+
+    /**
+     * Delete one of the current authenticated user's sessions with a single DELETE,
+     * without loading it first
+     * 
+     * @param id the session ID
+     */
+    @Transactional
     public void deleteSession(Long id) {
-        Session session = sessionRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Session not found"));
+        Long userId = currentUserProvider.getCurrentUserId();
+        if (sessionRepository.deleteByIdAndUserId(id, userId) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Session not found");
+        }
 
-        sessionRepository.delete(session);
+        recordingService.deleteRecordings(id);
+        transcriptionService.deleteForSession(id);
+        summaryService.deleteForSession(id);
+        sessionBulkWriteRecorder.record(userId, id, SessionChangeType.DELETED, null);
+        // The deleted status was never read, so the user's counts are reloaded instead of adjusted
+        sessionStatsStore.recordRecount(userId);
+        sessionSearchIndex.recordDeleted(userId, id);
     }
 
     /**
@@ -133,12 +375,20 @@ public class SessionService {
      * @param status the session status
      * @return list of session DTOs
      */
+    @Transactional(readOnly = true)
     public List<SessionDto> getSessionsByStatus(SessionStatus status) {
-        User user = getCurrentUser();
-        List<Session> sessions = sessionRepository.findByUserAndStatus(user, status);
-        return sessions.stream()
-                .map(this::convertToDto)
-                .collect(Collectors.toList());
+        return sessionRepository.findDtosByUserIdAndStatus(currentUserProvider.getCurrentUserId(), status);
+    }
+
+    /**
+     * Search the current authenticated user's sessions by patient name and notes
+     * 
+     * @param query the search text; each word is matched as a word prefix
+     * @param limit the maximum number of hits to return
+     * @return the matching sessions, patient-name matches first
+     */
+    public List<SessionSearchHit> searchSessions(String query, int limit) {
+        return sessionSearchIndex.search(currentUserProvider.getCurrentUserId(), query, limit);
     }
 
     /**
@@ -147,19 +397,25 @@ public class SessionService {
      * @return map of session statistics
      */
     public Map<String, Long> getSessionStats() {
-        User user = getCurrentUser();
+        return sessionStatsStore.getStats(currentUserProvider.getCurrentUserId());
+    }
 
-        Long totalSessions = sessionRepository.count();
-        Long completedSessions = sessionRepository.countByUserAndStatus(user, SessionStatus.COMPLETED);
-        Long scheduledSessions = sessionRepository.countByUserAndStatus(user, SessionStatus.SCHEDULED);
-        Long inProgressSessions = sessionRepository.countByUserAndStatus(user, SessionStatus.IN_PROGRESS);
+    private String encodeCursor(SessionDto session) {
+        String raw = session.getDate() + "|" + session.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
 
-        return Map.of(
-                "totalSessions", totalSessions,
-                "completedSessions", completedSessions,
-                "scheduledSessions", scheduledSessions,
-                "inProgressSessions", inProgressSessions
-        );
+    private SessionDto decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            SessionDto position = new SessionDto();
+            position.setDate(LocalDateTime.parse(raw.substring(0, separator)));
+            position.setId(Long.parseLong(raw.substring(separator + 1)));
+            return position;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
     }
 
     /**
@@ -168,7 +424,7 @@ public class SessionService {
      * @param session the session entity
      * @return the session DTO
      */
-    private SessionDto convertToDto(Session session) {
+    SessionDto convertToDto(Session session) {
         SessionDto dto = new SessionDto();
         dto.setId(session.getId());
         dto.setPatientName(session.getPatientName());
@@ -182,6 +438,7 @@ public class SessionService {
         dto.setUserId(session.getUser().getId());
         dto.setCreatedAt(session.getCreatedAt());
         dto.setUpdatedAt(session.getUpdatedAt());
+        dto.setVersion(session.getVersion());
         return dto;
     }
 }
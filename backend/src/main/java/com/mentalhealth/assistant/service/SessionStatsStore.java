@@ -0,0 +1,226 @@
+package com.mentalhealth.assistant.service;
+
+import com.mentalhealth.assistant.event.RemoteSessionChangeEvent;
+import com.mentalhealth.assistant.model.SessionStatus;
+import com.mentalhealth.assistant.repository.SessionRepository;
+import com.mentalhealth.assistant.repository.SessionStatusCount;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+
+/**
+ * In-memory session counts per user and status. Rebuilt from the sessions table
+ * before the application starts serving, then kept current by the write paths
+ * in {@link SessionService}, so reading statistics never touches the database.
+ * Changes made on other nodes drop the user's counts, which are recounted on next use.
+ */
+@Component
+public class SessionStatsStore implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(SessionStatsStore.class);
+
+    private final Map<Long, UserSessionStats> statsByUser = new ConcurrentHashMap<>();
+    private final Map<Long, WriteState> writeStates = new ConcurrentHashMap<>();
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        rebuild();
+    }
+
+    /**
+     * Recount every user's sessions from the database
+     */
+    public void rebuild() {
+        Map<Long, UserSessionStats> rebuilt = new HashMap<>();
+        for (SessionStatusCount row : sessionRepository.countGroupedByUserAndStatus()) {
+            rebuilt.computeIfAbsent(row.getUserId(), id -> new UserSessionStats()).add(row.getStatus(), row.getCount());
+        }
+
+        statsByUser.clear();
+        statsByUser.putAll(rebuilt);
+        logger.info("Rebuilt session statistics for {} users", rebuilt.size());
+    }
+
+    /**
+     * Get session statistics for a user
+     * 
+     * @param userId the user ID
+     * @return map of session statistics
+     */
+    public Map<String, Long> getStats(Long userId) {
+        UserSessionStats stats = statsFor(userId);
+        return Map.of(
+                "totalSessions", stats.total(),
+                "completedSessions", stats.get(SessionStatus.COMPLETED),
+                "scheduledSessions", stats.get(SessionStatus.SCHEDULED),
+                "inProgressSessions", stats.get(SessionStatus.IN_PROGRESS)
+        );
+    }
+
+    public void recordCreated(Long userId, SessionStatus status) {
+        afterCommit(userId, stats -> stats.add(status, 1));
+    }
+
+    public void recordDeleted(Long userId, SessionStatus status) {
+        afterCommit(userId, stats -> stats.add(status, -1));
+    }
+
+    public void recordStatusChanged(Long userId, SessionStatus from, SessionStatus to) {
+        if (from == to) {
+            return;
+        }
+        afterCommit(userId, stats -> {
+            stats.add(from, -1);
+            stats.add(to, 1);
+        });
+    }
+
+    /**
+     * Drop a user's counts once the current transaction commits, so they are recounted
+     * on next use. For writes that do not know the previous status, like bulk updates.
+     * 
+     * @param userId the user ID
+     */
+    public void recordRecount(Long userId) {
+        afterCommit(userId, null);
+    }
+
+    @EventListener
+    public void onRemoteChange(RemoteSessionChangeEvent event) {
+        for (Long userId : event.getUserIds()) {
+            // Already committed elsewhere, so dropped now rather than after a local commit
+            WriteState writes = writeStateFor(userId);
+            writes.begin();
+            try {
+                statsByUser.remove(userId);
+            } finally {
+                writes.end();
+            }
+        }
+    }
+
+    private UserSessionStats statsFor(Long userId) {
+        UserSessionStats stats = statsByUser.get(userId);
+        if (stats != null) {
+            return stats;
+        }
+
+        // Counted outside the map, so the query neither blocks other users nor pins a virtual thread
+        WriteState writes = writeStateFor(userId);
+        long generation = writes.generation.get();
+        boolean quiet = writes.inFlight.get() == 0;
+        UserSessionStats loaded = load(userId);
+        UserSessionStats installed = statsByUser.compute(userId, (id, existing) -> {
+            if (existing != null) {
+                return existing;
+            }
+            // A write that committed, or is still committing, while we counted may or may not be
+            // in the result, so its delta could be lost or applied twice; answer without caching
+            return quiet && writes.inFlight.get() == 0 && writes.generation.get() == generation ? loaded : null;
+        });
+        return installed != null ? installed : loaded;
+    }
+
+    // Users that had no sessions at startup are counted on first use
+    private UserSessionStats load(Long userId) {
+        UserSessionStats stats = new UserSessionStats();
+        for (SessionStatusCount row : sessionRepository.countGroupedByStatus(userId)) {
+            stats.add(row.getStatus(), row.getCount());
+        }
+        return stats;
+    }
+
+    private WriteState writeStateFor(Long userId) {
+        return writeStates.computeIfAbsent(userId, id -> new WriteState());
+    }
+
+    /*
+     * Only apply a delta once the change is visible to everyone else, and only to counts
+     * already loaded; counts loaded later are read from the database and include it.
+     * A null update drops the user's counts instead.
+     */
+    private void afterCommit(Long userId, Consumer<UserSessionStats> update) {
+        WriteState writes = writeStateFor(userId);
+        writes.begin();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(userId, update);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    writes.end();
+                }
+            });
+        } else {
+            try {
+                apply(userId, update);
+            } finally {
+                writes.end();
+            }
+        }
+    }
+
+    private void apply(Long userId, Consumer<UserSessionStats> update) {
+        statsByUser.computeIfPresent(userId, (id, stats) -> {
+            if (update == null) {
+                return null;
+            }
+            update.accept(stats);
+            return stats;
+        });
+    }
+
+    // Writes of one user that are not yet fully applied, and a stamp that moves with each of them
+    private static class WriteState {
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong generation = new AtomicLong();
+
+        void begin() {
+            generation.incrementAndGet();
+            inFlight.incrementAndGet();
+        }
+
+        void end() {
+            inFlight.decrementAndGet();
+            generation.incrementAndGet();
+        }
+    }
+
+    private static class UserSessionStats {
+        private final AtomicLongArray counts = new AtomicLongArray(SessionStatus.values().length);
+
+        void add(SessionStatus status, long delta) {
+            counts.addAndGet(status.ordinal(), delta);
+        }
+
+        long get(SessionStatus status) {
+            return counts.get(status.ordinal());
+        }
+
+        long total() {
+            long total = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                total += counts.get(i);
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.mentalhealth.assistant.service;
+
+import com.mentalhealth.assistant.event.RemoteSessionChangeEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user version of the session collection, bumped after every committed change
+ * to one of the user's sessions. List and statistics responses are tagged with it,
+ * so an unchanged poll can be answered with 304 without querying anything. The
+ * startup time is part of the version, so tags from a previous run never match.
+ * Other nodes bump their copy when the change reaches them through the cache
+ * invalidation transport; tags from different nodes never match either.
+ */
+@Component
+public class SessionVersionStore {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<Long, AtomicLong> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Get the current version of a user's sessions
+     * 
+     * @param userId the user ID
+     * @return an opaque version string
+     */
+    public String getVersion(Long userId) {
+        return epoch + "." + versionOf(userId).get();
+    }
+
+    /**
+     * Bump a user's version once the current transaction commits, or right away without one
+     * 
+     * @param userId the user ID
+     */
+    public void recordChanged(Long userId) {
+        AtomicLong version = versionOf(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+
+    @EventListener
+    public void onRemoteChange(RemoteSessionChangeEvent event) {
+        for (Long userId : event.getUserIds()) {
+            versionOf(userId).incrementAndGet();
+        }
+    }
+
+    private AtomicLong versionOf(Long userId) {
+        return versions.computeIfAbsent(userId, id -> new AtomicLong());
+    }
+}
@@ -0,0 +1,46 @@
+package com.mentalhealth.assistant.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Deterministic local summarizer for development and testing. Uses the leading
+ * sentences of each transcript as the summary and key points.
+ */
+@Component
+@ConditionalOnProperty(name = "app.summary.summarizer", havingValue = "stub", matchIfMissing = true)
+public class StubSummarizer implements Summarizer {
+
+    private static final int SUMMARY_SENTENCES = 3;
+    private static final int KEY_POINTS = 4;
+    private static final int KEY_POINT_LENGTH = 80;
+
+    @Override
+    public List<Result> summarize(List<Input> inputs) {
+        List<Result> results = new ArrayList<>(inputs.size());
+        for (Input input : inputs) {
+            List<String> sentences = Arrays.stream(input.text().split("(?<=[.!?])\\s+"))
+                    .map(String::trim)
+                    .filter(sentence -> !sentence.isEmpty())
+                    .collect(Collectors.toList());
+
+            String text = "# Session Summary\n\n" + sentences.stream()
+                    .limit(SUMMARY_SENTENCES)
+                    .collect(Collectors.joining(" "));
+            List<String> keyPoints = sentences.stream()
+                    .limit(KEY_POINTS)
+                    .map(sentence -> sentence.length() > KEY_POINT_LENGTH
+                            ? sentence.substring(0, KEY_POINT_LENGTH)
+                            : sentence)
+                    .collect(Collectors.toList());
+
+            results.add(new Result(input.transcriptionId(), text, keyPoints));
+        }
+        return results;
+    }
+}
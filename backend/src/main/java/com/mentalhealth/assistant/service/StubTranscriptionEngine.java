@@ -0,0 +1,45 @@
+package com.mentalhealth.assistant.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Deterministic local engine for development and testing. Reads the whole
+ * recording and derives the transcript from its size and checksum, so the same
+ * file always produces the same text.
+ */
+@Component
+@ConditionalOnProperty(name = "app.transcription.engine", havingValue = "stub", matchIfMissing = true)
+public class StubTranscriptionEngine implements TranscriptionEngine {
+
+    @Override
+    public String transcribe(Path audio, String contentType, IntConsumer progress) throws IOException {
+        long size = Files.size(audio);
+        CRC32 checksum = new CRC32();
+        ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+
+        try (FileChannel channel = FileChannel.open(audio, StandardOpenOption.READ)) {
+            long read = 0;
+            int count;
+            while ((count = channel.read(buffer)) != -1) {
+                buffer.flip();
+                checksum.update(buffer);
+                buffer.clear();
+                read += count;
+                progress.accept((int) (read * 100 / Math.max(size, 1)));
+            }
+        }
+
+        return String.format("Transcription of %d bytes of %s audio (checksum %08x).",
+                size, contentType, checksum.getValue());
+    }
+}
@@ -0,0 +1,24 @@
+package com.mentalhealth.assistant.service;
+
+import java.util.List;
+
+/**
+ * Summary backend used by the summary batcher. Receives several transcripts
+ * per call so that remote implementations can amortize request overhead.
+ */
+public interface Summarizer {
+
+    /**
+     * Summarize a batch of transcripts. Always called on the batcher thread.
+     * 
+     * @param inputs the transcripts to summarize
+     * @return one result per input, matched by transcription id
+     */
+    List<Result> summarize(List<Input> inputs) throws Exception;
+
+    record Input(String transcriptionId, String text) {
+    }
+
+    record Result(String transcriptionId, String text, List<String> keyPoints) {
+    }
+}
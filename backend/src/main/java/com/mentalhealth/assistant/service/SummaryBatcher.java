@@ -0,0 +1,139 @@
+package com.mentalhealth.assistant.service;
+
+import com.mentalhealth.assistant.config.SummaryProperties;
+import com.mentalhealth.assistant.config.WorkerThreadFactory;
+import com.mentalhealth.assistant.repository.SummaryRequestRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feeds queued summary requests to the {@link Summarizer} in batches. Requests
+ * accumulate for one batch interval and are then drained in batches of up to
+ * the configured size, so an end-of-day burst turns into a few large calls
+ * instead of one call per session.
+ * <p>
+ * Claims are leases, as in {@link TranscriptionWorker}: a separate thread renews
+ * them for the batch in flight, since a summarizer call can outlast the lease,
+ * and any node requeues requests whose lease expired. The attempt number of each
+ * claim fences the batch's outcome, so a batch whose lease expired cannot store a
+ * summary for, or fail, a request another batch has claimed since.
+ */
+@Component
+public class SummaryBatcher {
+    private static final Logger logger = LoggerFactory.getLogger(SummaryBatcher.class);
+
+    @Autowired
+    private SummaryService summaryService;
+
+    @Autowired
+    private SummaryRequestRepository requestRepository;
+
+    @Autowired
+    private Summarizer summarizer;
+
+    @Autowired
+    private SummaryProperties properties;
+
+    @Autowired
+    private WorkerThreadFactory workerThreadFactory;
+
+    private ScheduledExecutorService batcher;
+    private ScheduledExecutorService leaseRenewer;
+
+    // Requests of the batch in flight, from claim until their outcome is stored
+    private final Set<String> claimedRequests = ConcurrentHashMap.newKeySet();
+
+    @PostConstruct
+    public void start() {
+        requeueExpired();
+
+        long intervalMillis = properties.getBatchInterval().toMillis();
+        batcher = Executors.newSingleThreadScheduledExecutor(workerThreadFactory.create("summary-batcher-"));
+        batcher.scheduleWithFixedDelay(this::processBatches, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+
+        // The batcher thread is blocked in the summarizer while a batch runs, so renewals need their own
+        long renewMillis = Math.max(1, properties.getLeaseTimeout().toMillis() / 3);
+        leaseRenewer = Executors.newSingleThreadScheduledExecutor(workerThreadFactory.create("summary-lease-"));
+        leaseRenewer.scheduleWithFixedDelay(this::renewLeases, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        leaseRenewer.shutdownNow();
+        batcher.shutdownNow();
+    }
+
+    private void processBatches() {
+        try {
+            requeueExpired();
+            List<String> due;
+            do {
+                due = requestRepository.findDueTranscriptionIds(LocalDateTime.now(), PageRequest.of(0, properties.getBatchSize()));
+                if (!due.isEmpty()) {
+                    processBatch(due);
+                }
+            } while (due.size() == properties.getBatchSize() && !Thread.currentThread().isInterrupted());
+        } catch (Exception e) {
+            // Never let an exception cancel the scheduled batching
+            logger.error("Summary batching failed: {}", e.getMessage());
+        }
+    }
+
+    private void processBatch(List<String> transcriptionIds) {
+        SummaryService.ClaimedBatch batch = summaryService.claimBatch(transcriptionIds);
+        List<Summarizer.Input> inputs = batch.inputs();
+        if (inputs.isEmpty()) {
+            return;
+        }
+
+        Set<String> claimedIds = batch.attempts().keySet();
+        claimedRequests.addAll(claimedIds);
+        try {
+            summaryService.completeBatch(batch.attempts(), summarizer.summarize(inputs));
+            logger.info("Summarized batch of {} transcriptions", inputs.size());
+        } catch (Exception e) {
+            logger.warn("Summary batch of {} failed: {}", inputs.size(), e.getMessage());
+            summaryService.failBatch(batch.attempts(), e);
+        } finally {
+            claimedRequests.removeAll(claimedIds);
+        }
+    }
+
+    private void renewLeases() {
+        try {
+            if (!claimedRequests.isEmpty()) {
+                requestRepository.renewClaims(List.copyOf(claimedRequests), LocalDateTime.now());
+            }
+        } catch (Exception e) {
+            // Never let an exception cancel the scheduled renewal
+            logger.error("Summary lease renewal failed: {}", e.getMessage());
+        }
+    }
+
+    // Only requests claimed longer ago than the lease; younger ones may belong to a batch running on another node
+    private void requeueExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minus(properties.getLeaseTimeout());
+        int failed = requestRepository.failExpired(cutoff, properties.getMaxAttempts(), now);
+        if (failed > 0) {
+            logger.warn("Failed {} summary requests whose lease expired on their last attempt", failed);
+        }
+        int requeued = requestRepository.requeueExpired(cutoff, properties.getMaxAttempts(), now);
+        if (requeued > 0) {
+            logger.info("Requeued {} summary requests whose lease expired", requeued);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package com.mentalhealth.assistant.service;
+
+import com.mentalhealth.assistant.config.SummaryProperties;
+import com.mentalhealth.assistant.dto.SummaryDto;
+import com.mentalhealth.assistant.dto.SummaryRequestDto;
+import com.mentalhealth.assistant.event.SessionChangeType;
+import com.mentalhealth.assistant.event.SummaryRequestEvent;
+import com.mentalhealth.assistant.model.JobStatus;
+import com.mentalhealth.assistant.model.Summary;
+import com.mentalhealth.assistant.model.SummaryRequest;
+import com.mentalhealth.assistant.model.Transcription;
+import com.mentalhealth.assistant.repository.SessionRepository;
+import com.mentalhealth.assistant.repository.SummaryRepository;
+import com.mentalhealth.assistant.repository.SummaryRequestRepository;
+import com.mentalhealth.assistant.repository.TranscriptionRepository;
+import com.mentalhealth.assistant.security.CurrentUserProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+@Service
+public class SummaryService {
+
+    @Autowired
+    private SummaryRepository summaryRepository;
+
+    @Autowired
+    private SummaryRequestRepository requestRepository;
+
+    @Autowired
+    private TranscriptionRepository transcriptionRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private SessionBulkWriteRecorder sessionBulkWriteRecorder;
+
+    @Autowired
+    private CurrentUserProvider currentUserProvider;
+
+    @Autowired
+    private SummaryProperties properties;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Request a summary of one of the current user's transcriptions
+     * 
+     * @param transcriptionId the transcription ID
+     * @return the summary request; an existing one if the transcription was already requested
+     */
+    public SummaryRequestDto requestSummary(String transcriptionId) {
+        Transcription transcription = transcriptionRepository
+                .findByIdAndUserId(transcriptionId, currentUserProvider.getCurrentUserId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Transcription not found"));
+        return enqueue(transcription);
+    }
+
+    /**
+     * Queue a summary of a transcription unless one is already queued or done.
+     * Not transactional on purpose: a concurrent duplicate fails its own insert
+     * on the primary key, and the existing request is returned instead. Joins the
+     * caller's transaction if there is one, as when a transcription job completes.
+     * 
+     * @param transcription the transcription to summarize
+     * @return the summary request
+     */
+    public SummaryRequestDto enqueue(Transcription transcription) {
+        SummaryRequest existing = requestRepository.findById(transcription.getId()).orElse(null);
+        if (existing != null) {
+            return toDto(existing);
+        }
+
+        SummaryRequest request = new SummaryRequest();
+        request.setTranscriptionId(transcription.getId());
+        request.setSessionId(transcription.getSessionId());
+        request.setUserId(transcription.getUserId());
+        request.setStatus(JobStatus.QUEUED);
+        request.setAttempts(0);
+        request.setNextAttemptAt(LocalDateTime.now());
+
+        try {
+            SummaryRequest savedRequest = requestRepository.save(request);
+            publish(savedRequest);
+            return toDto(savedRequest);
+        } catch (DataIntegrityViolationException e) {
+            return requestRepository.findById(transcription.getId())
+                    .map(this::toDto)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * Get the state of a summary request of the current user
+     * 
+     * @param transcriptionId the transcription ID
+     * @return the summary request
+     */
+    public SummaryRequestDto getRequest(String transcriptionId) {
+        SummaryRequest request = requestRepository
+                .findByTranscriptionIdAndUserId(transcriptionId, currentUserProvider.getCurrentUserId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Summary request not found"));
+        return toDto(request);
+    }
+
+    /**
+     * Get a summary of the current user
+     * 
+     * @param id the summary ID
+     * @return the summary DTO
+     */
+    public SummaryDto getSummary(String id) {
+        Summary summary = summaryRepository.findByIdAndUserId(id, currentUserProvider.getCurrentUserId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Summary not found"));
+        return new SummaryDto(
+                summary.getId(),
+                summary.getSessionId(),
+                summary.getTranscriptionId(),
+                summary.getText(),
+                new ArrayList<>(summary.getKeyPoints()),
+                summary.getCreatedAt()
+        );
+    }
+
+    /**
+     * Claim due requests for the next batch
+     * 
+     * @param transcriptionIds candidate transcription IDs
+     * @return the inputs for the requests this node claimed, with the attempt number of each claim
+     */
+    public ClaimedBatch claimBatch(Collection<String> transcriptionIds) {
+        List<Summarizer.Input> inputs = new ArrayList<>();
+        Map<String, Integer> attempts = new HashMap<>();
+        Map<String, Integer> missing = new HashMap<>();
+        for (String transcriptionId : transcriptionIds) {
+            if (requestRepository.claim(transcriptionId, LocalDateTime.now()) == 0) {
+                continue;
+            }
+            SummaryRequest request = requestRepository.findById(transcriptionId).orElse(null);
+            if (request == null) {
+                continue;
+            }
+            Transcription transcription = transcriptionRepository.findById(transcriptionId).orElse(null);
+            if (transcription != null) {
+                inputs.add(new Summarizer.Input(transcription.getId(), transcription.getText()));
+                attempts.put(transcriptionId, request.getAttempts());
+            } else {
+                missing.put(transcriptionId, request.getAttempts());
+            }
+        }
+        if (!missing.isEmpty()) {
+            failBatch(missing, new IllegalStateException("Transcription not found"));
+        }
+        return new ClaimedBatch(inputs, attempts);
+    }
+
+    /**
+     * Store a batch of summaries and link each one to its session. Claimed requests
+     * the summarizer returned no result for count as a failed attempt, so none of
+     * them is left RUNNING. A request whose claim expired and was taken over by
+     * another batch is skipped, so each request gets at most one summary.
+     * 
+     * @param claims the transcription ID and claimed attempt of every request in the batch
+     * @param results the summarizer output
+     */
+    @Transactional
+    public void completeBatch(Map<String, Integer> claims, List<Summarizer.Result> results) {
+        Map<String, Integer> unanswered = new HashMap<>(claims);
+        for (Summarizer.Result result : results) {
+            Integer attempt = unanswered.remove(result.transcriptionId());
+            if (attempt == null) {
+                continue;
+            }
+            String summaryId = UUID.randomUUID().toString();
+            if (requestRepository.complete(result.transcriptionId(), attempt, summaryId, LocalDateTime.now()) == 0) {
+                continue;
+            }
+            SummaryRequest request = requestRepository.findById(result.transcriptionId()).orElse(null);
+            if (request == null) {
+                continue;
+            }
+
+            Summary summary = new Summary();
+            summary.setId(summaryId);
+            summary.setSessionId(request.getSessionId());
+            summary.setUserId(request.getUserId());
+            summary.setTranscriptionId(request.getTranscriptionId());
+            summary.setText(result.text());
+            summary.setKeyPoints(new ArrayList<>(result.keyPoints()));
+            summaryRepository.save(summary);
+
+            if (sessionRepository.updateSummaryId(request.getSessionId(), summaryId, LocalDateTime.now()) > 0) {
+                sessionBulkWriteRecorder.record(request.getUserId(), request.getSessionId(), SessionChangeType.UPDATED, null);
+            }
+            publish(request);
+        }
+
+        if (!unanswered.isEmpty()) {
+            failBatch(unanswered, new IllegalStateException("Summarizer returned no result"));
+        }
+    }
+
+    /**
+     * Record a failed batch, retrying each request with exponential backoff until its attempts run out.
+     * Requests no longer held under the given claim are left alone.
+     * 
+     * @param claims the transcription ID and claimed attempt of every request in the failed batch
+     * @param error the cause of the failure
+     */
+    @Transactional
+    public void failBatch(Map<String, Integer> claims, Exception error) {
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        String lastError = message.length() > 1000 ? message.substring(0, 1000) : message;
+        for (Map.Entry<String, Integer> claim : claims.entrySet()) {
+            int attempt = claim.getValue();
+            LocalDateTime now = LocalDateTime.now();
+            int updated;
+            if (attempt >= properties.getMaxAttempts()) {
+                updated = requestRepository.fail(claim.getKey(), attempt, JobStatus.FAILED, now, lastError, now);
+            } else {
+                Duration backoff = properties.getRetryBackoff().multipliedBy(1L << (attempt - 1));
+                updated = requestRepository.fail(claim.getKey(), attempt, JobStatus.QUEUED, now.plus(backoff),
+                        lastError, now);
+            }
+            if (updated > 0) {
+                requestRepository.findById(claim.getKey()).ifPresent(this::publish);
+            }
+        }
+    }
+
+    /**
+     * Remove all summaries and summary requests of a session
+     * 
+     * @param sessionId the session ID
+     */
+    @Transactional
+    public void deleteForSession(Long sessionId) {
+        requestRepository.deleteBySessionId(sessionId);
+        summaryRepository.deleteBySessionId(sessionId);
+    }
+
+    /**
+     * Requests this node claimed for one batch
+     * 
+     * @param inputs the transcripts to summarize
+     * @param attempts transcription ID to the attempt number of its claim
+     */
+    public record ClaimedBatch(List<Summarizer.Input> inputs, Map<String, Integer> attempts) {
+    }
+
+    private void publish(SummaryRequest request) {
+        eventPublisher.publishEvent(new SummaryRequestEvent(request.getUserId(), toDto(request)));
+    }
+
+    private SummaryRequestDto toDto(SummaryRequest request) {
+        return new SummaryRequestDto(
+                request.getTranscriptionId(),
+                request.getSessionId(),
+                request.getStatus(),
+                request.getAttempts(),
+                request.getLastError(),
+                request.getSummaryId(),
+                request.getCreatedAt(),
+                request.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,21 @@
+package com.mentalhealth.assistant.service;
+
+import java.nio.file.Path;
+import java.util.function.IntConsumer;
+
+/**
+ * Speech-to-text backend used by the transcription workers
+ */
+public interface TranscriptionEngine {
+
+    /**
+     * Transcribe a recording. Always called on a transcription worker thread, never
+     * on a request thread, so implementations may block.
+     * 
+     * @param audio the recording file
+     * @param contentType the recording's media type
+     * @param progress receives the completion percentage, from 0 to 100
+     * @return the transcript text
+     */
+    String transcribe(Path audio, String contentType, IntConsumer progress) throws Exception;
+}
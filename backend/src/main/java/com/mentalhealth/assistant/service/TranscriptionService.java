@@ -0,0 +1,251 @@
+package com.mentalhealth.assistant.service;
+
+import com.mentalhealth.assistant.config.TranscriptionProperties;
+import com.mentalhealth.assistant.dto.TranscriptionDto;
+import com.mentalhealth.assistant.dto.TranscriptionJobDto;
+import com.mentalhealth.assistant.dto.TranscriptionRequest;
+import com.mentalhealth.assistant.event.SessionChangeType;
+import com.mentalhealth.assistant.event.TranscriptionJobEvent;
+import com.mentalhealth.assistant.model.JobStatus;
+import com.mentalhealth.assistant.model.Transcription;
+import com.mentalhealth.assistant.model.TranscriptionJob;
+import com.mentalhealth.assistant.repository.SessionRepository;
+import com.mentalhealth.assistant.repository.TranscriptionJobRepository;
+import com.mentalhealth.assistant.repository.TranscriptionRepository;
+import com.mentalhealth.assistant.security.CurrentUserProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Service
+public class TranscriptionService {
+
+    private static final List<JobStatus> ACTIVE_STATUSES = List.of(JobStatus.QUEUED, JobStatus.RUNNING);
+
+    @Autowired
+    private TranscriptionJobRepository jobRepository;
+
+    @Autowired
+    private TranscriptionRepository transcriptionRepository;
+
+    @Autowired
+    private SessionRepository sessionRepository;
+
+    @Autowired
+    private SessionBulkWriteRecorder sessionBulkWriteRecorder;
+
+    @Autowired
+    private RecordingService recordingService;
+
+    @Autowired
+    private SummaryService summaryService;
+
+    @Autowired
+    private CurrentUserProvider currentUserProvider;
+
+    @Autowired
+    private TranscriptionProperties properties;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Queue a transcription of a session's recording. The job runs on the
+     * transcription worker pool; poll it with {@link #getJob(String)}.
+     * 
+     * @param request the session to transcribe
+     * @return the queued job, or the session's job already in progress
+     */
+    public TranscriptionJobDto createJob(TranscriptionRequest request) {
+        Long userId = currentUserProvider.getCurrentUserId();
+        Long sessionId = request.getSessionId();
+        if (!sessionRepository.existsByIdAndUserId(sessionId, userId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Session not found");
+        }
+        if (recordingService.findCompletedRecording(sessionId) == null) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Session has no recording");
+        }
+
+        TranscriptionJob existing = jobRepository.findFirstBySessionIdAndStatusIn(sessionId, ACTIVE_STATUSES).orElse(null);
+        if (existing != null) {
+            return toDto(existing);
+        }
+
+        TranscriptionJob job = new TranscriptionJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setSessionId(sessionId);
+        job.setActiveSessionId(sessionId);
+        job.setUserId(userId);
+        job.setStatus(JobStatus.QUEUED);
+        job.setProgress(0);
+        job.setAttempts(0);
+        job.setNextAttemptAt(LocalDateTime.now());
+
+        TranscriptionJob savedJob;
+        try {
+            savedJob = jobRepository.save(job);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent request queued the session's job first
+            return jobRepository.findFirstBySessionIdAndStatusIn(sessionId, ACTIVE_STATUSES)
+                    .map(this::toDto)
+                    .orElseThrow(() -> e);
+        }
+        publish(savedJob);
+        return toDto(savedJob);
+    }
+
+    /**
+     * Get a transcription job of the current user
+     * 
+     * @param jobId the job ID
+     * @return the job with its status and progress
+     */
+    public TranscriptionJobDto getJob(String jobId) {
+        TranscriptionJob job = jobRepository.findByIdAndUserId(jobId, currentUserProvider.getCurrentUserId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Transcription job not found"));
+        return toDto(job);
+    }
+
+    /**
+     * Get a transcription of the current user
+     * 
+     * @param id the transcription ID
+     * @return the transcription DTO
+     */
+    public TranscriptionDto getTranscription(String id) {
+        Transcription transcription = transcriptionRepository.findByIdAndUserId(id, currentUserProvider.getCurrentUserId())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Transcription not found"));
+        return new TranscriptionDto(
+                transcription.getId(),
+                transcription.getSessionId(),
+                transcription.getText(),
+                transcription.getCreatedAt()
+        );
+    }
+
+    /**
+     * Claim a queued job for this worker
+     * 
+     * @param jobId the job ID
+     * @return the attempt number of this worker's claim, or 0 if another worker got the job first
+     */
+    public int startJob(String jobId) {
+        if (jobRepository.claim(jobId, LocalDateTime.now()) == 0) {
+            return 0;
+        }
+        TranscriptionJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return 0;
+        }
+        publish(job);
+        return job.getAttempts();
+    }
+
+    public void updateProgress(String jobId, int progress) {
+        if (jobRepository.updateProgress(jobId, progress, LocalDateTime.now()) > 0) {
+            jobRepository.findById(jobId).ifPresent(this::publish);
+        }
+    }
+
+    /**
+     * Store the transcript of a finished job, link it to the session and queue its
+     * summary. Nothing is stored if the claim expired in the meantime and the job was
+     * requeued or claimed again, so a job is completed at most once.
+     * 
+     * @param jobId the job ID
+     * @param attempt the attempt number returned by {@link #startJob(String)}
+     * @param text the transcript
+     * @return true if the job was completed, false if this worker no longer held it
+     */
+    @Transactional
+    public boolean completeJob(String jobId, int attempt, String text) {
+        String transcriptionId = UUID.randomUUID().toString();
+        if (jobRepository.complete(jobId, attempt, transcriptionId, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        TranscriptionJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalStateException("Transcription job disappeared: " + jobId));
+
+        Transcription transcription = new Transcription();
+        transcription.setId(transcriptionId);
+        transcription.setSessionId(job.getSessionId());
+        transcription.setUserId(job.getUserId());
+        transcription.setText(text);
+        transcriptionRepository.save(transcription);
+        // Queued in the same transaction, so no completed transcription is left without a summary request
+        summaryService.enqueue(transcription);
+
+        if (sessionRepository.updateTranscriptionId(job.getSessionId(), transcriptionId, LocalDateTime.now()) > 0) {
+            sessionBulkWriteRecorder.record(job.getUserId(), job.getSessionId(), SessionChangeType.UPDATED, null);
+        }
+        publish(job);
+        return true;
+    }
+
+    /**
+     * Record a failed attempt, retrying with exponential backoff until the attempts run out.
+     * Ignored if this worker's claim expired and the job has moved on.
+     * 
+     * @param jobId the job ID
+     * @param attempt the attempt number returned by {@link #startJob(String)}
+     * @param error the cause of the failure
+     */
+    @Transactional
+    public void failAttempt(String jobId, int attempt, Exception error) {
+        TranscriptionJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || job.getStatus() != JobStatus.RUNNING || job.getAttempts() != attempt) {
+            return;
+        }
+
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        job.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        if (job.getAttempts() >= properties.getMaxAttempts()) {
+            job.setStatus(JobStatus.FAILED);
+            job.setActiveSessionId(null);
+        } else {
+            Duration backoff = properties.getRetryBackoff().multipliedBy(1L << (job.getAttempts() - 1));
+            job.setStatus(JobStatus.QUEUED);
+            job.setProgress(0);
+            job.setNextAttemptAt(LocalDateTime.now().plus(backoff));
+        }
+        publish(job);
+    }
+
+    /**
+     * Remove all transcriptions and jobs of a session
+     * 
+     * @param sessionId the session ID
+     */
+    @Transactional
+    public void deleteForSession(Long sessionId) {
+        jobRepository.deleteBySessionId(sessionId);
+        transcriptionRepository.deleteBySessionId(sessionId);
+    }
+
+    private void publish(TranscriptionJob job) {
+        eventPublisher.publishEvent(new TranscriptionJobEvent(job.getUserId(), toDto(job)));
+    }
+
+    private TranscriptionJobDto toDto(TranscriptionJob job) {
+        return new TranscriptionJobDto(
+                job.getId(),
+                job.getSessionId(),
+                job.getStatus(),
+                job.getProgress(),
+                job.getAttempts(),
+                job.getLastError(),
+                job.getTranscriptionId(),
+                job.getCreatedAt(),
+                job.getUpdatedAt()
+        );
+    }
+}
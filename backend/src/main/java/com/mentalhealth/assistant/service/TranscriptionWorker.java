@@ -0,0 +1,200 @@
+package com.mentalhealth.assistant.service;
+
+import com.mentalhealth.assistant.config.TranscriptionProperties;
+import com.mentalhealth.assistant.config.WorkerThreadFactory;
+import com.mentalhealth.assistant.event.TranscriptionJobEvent;
+import com.mentalhealth.assistant.model.JobStatus;
+import com.mentalhealth.assistant.model.RecordingUpload;
+import com.mentalhealth.assistant.model.TranscriptionJob;
+import com.mentalhealth.assistant.repository.TranscriptionJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs queued transcription jobs on a fixed pool of worker threads. A single
+ * dispatcher thread claims due jobs from the database, but only as many as the
+ * pool's bounded queue can take; everything else stays QUEUED in the table until
+ * capacity frees up, so a burst of requests cannot exhaust memory or threads.
+ * <p>
+ * A claim is a lease: the node renews it for the jobs it is running, and any node
+ * requeues RUNNING jobs whose lease has expired, so the jobs of a node that died
+ * are picked up again without disturbing the ones live nodes are working on. The
+ * attempt number of a claim fences its outcome: a worker whose lease expired cannot
+ * complete or fail a job that has since been claimed again, and a job whose lease
+ * expires on its last attempt is failed instead of requeued.
+ */
+@Component
+public class TranscriptionWorker {
+    private static final Logger logger = LoggerFactory.getLogger(TranscriptionWorker.class);
+
+    @Autowired
+    private TranscriptionService transcriptionService;
+
+    @Autowired
+    private TranscriptionJobRepository jobRepository;
+
+    @Autowired
+    private RecordingService recordingService;
+
+    @Autowired
+    private TranscriptionEngine transcriptionEngine;
+
+    @Autowired
+    private TranscriptionProperties properties;
+
+    @Autowired
+    private WorkerThreadFactory workerThreadFactory;
+
+    private ThreadPoolExecutor workers;
+    private ScheduledExecutorService dispatcher;
+
+    // Jobs claimed by this node with the attempt number of the claim, from dispatch until their outcome is stored
+    private final Map<String, Integer> claimedJobs = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void start() {
+        requeueExpired();
+
+        workers = new ThreadPoolExecutor(
+                properties.getWorkerThreads(),
+                properties.getWorkerThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                workerThreadFactory.create("transcription-"));
+
+        long pollMillis = properties.getPollInterval().toMillis();
+        dispatcher = Executors.newSingleThreadScheduledExecutor(workerThreadFactory.create("transcription-dispatcher-"));
+        dispatcher.scheduleWithFixedDelay(this::dispatch, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        long renewMillis = Math.max(1, properties.getLeaseTimeout().toMillis() / 3);
+        dispatcher.scheduleWithFixedDelay(this::renewLeases, renewMillis, renewMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        dispatcher.shutdownNow();
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            // Interrupted jobs stay RUNNING and are requeued once their lease expires
+            workers.shutdownNow();
+        }
+    }
+
+    // Pick up new jobs right away instead of waiting for the next poll
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJobEvent(TranscriptionJobEvent event) {
+        if (event.getJob().getStatus() == JobStatus.QUEUED && !dispatcher.isShutdown()) {
+            try {
+                dispatcher.execute(this::dispatch);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Dispatcher is shutting down");
+            }
+        }
+    }
+
+    private void dispatch() {
+        try {
+            int capacity = workers.getQueue().remainingCapacity();
+            if (capacity == 0) {
+                return;
+            }
+
+            List<String> dueJobIds = jobRepository.findDueJobIds(LocalDateTime.now(), PageRequest.of(0, capacity));
+            for (String jobId : dueJobIds) {
+                int attempt = transcriptionService.startJob(jobId);
+                if (attempt == 0) {
+                    continue;
+                }
+                claimedJobs.put(jobId, attempt);
+                try {
+                    workers.execute(() -> process(jobId, attempt));
+                } catch (RejectedExecutionException e) {
+                    claimedJobs.remove(jobId);
+                    jobRepository.release(jobId, LocalDateTime.now());
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            // Never let an exception cancel the scheduled dispatch
+            logger.error("Transcription dispatch failed: {}", e.getMessage());
+        }
+    }
+
+    private void renewLeases() {
+        try {
+            if (!claimedJobs.isEmpty()) {
+                jobRepository.renewClaims(List.copyOf(claimedJobs.keySet()), LocalDateTime.now());
+            }
+            requeueExpired();
+        } catch (Exception e) {
+            // Never let an exception cancel the scheduled renewal
+            logger.error("Transcription lease renewal failed: {}", e.getMessage());
+        }
+    }
+
+    private void requeueExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minus(properties.getLeaseTimeout());
+        int failed = jobRepository.failExpired(cutoff, properties.getMaxAttempts(), now);
+        if (failed > 0) {
+            logger.warn("Failed {} transcription jobs whose lease expired on their last attempt", failed);
+        }
+        int requeued = jobRepository.requeueExpired(cutoff, properties.getMaxAttempts(), now);
+        if (requeued > 0) {
+            logger.info("Requeued {} transcription jobs whose lease expired", requeued);
+        }
+    }
+
+    private void process(String jobId, int attempt) {
+        try {
+            TranscriptionJob job = jobRepository.findById(jobId).orElse(null);
+            if (job == null) {
+                return;
+            }
+
+            RecordingUpload recording = recordingService.findCompletedRecording(job.getSessionId());
+            if (recording == null) {
+                throw new IllegalStateException("Session has no recording");
+            }
+
+            int[] lastProgress = {0};
+            String text = transcriptionEngine.transcribe(
+                    recordingService.recordingFile(recording),
+                    recording.getContentType(),
+                    progress -> {
+                        // Only persist meaningful steps, not every buffer read
+                        if (progress >= lastProgress[0] + 10 && progress < 100) {
+                            lastProgress[0] = progress;
+                            transcriptionService.updateProgress(jobId, progress);
+                        }
+                    });
+
+            if (transcriptionService.completeJob(jobId, attempt, text)) {
+                logger.info("Completed transcription job {} for session {}", jobId, job.getSessionId());
+            } else {
+                logger.warn("Discarded result of transcription job {}: its lease expired before it finished", jobId);
+            }
+        } catch (Exception e) {
+            logger.warn("Transcription job {} failed: {}", jobId, e.getMessage());
+            transcriptionService.failAttempt(jobId, attempt, e);
+        } finally {
+            claimedJobs.remove(jobId);
+        }
+    }
+}
@@ -0,0 +1,257 @@
+package com.mentalhealth.assistant.websocket;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mentalhealth.assistant.config.ChangeFeedProperties;
+import com.mentalhealth.assistant.config.WorkerThreadFactory;
+import com.mentalhealth.assistant.dto.ChangeFeedMessage;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.adapter.NativeWebSocketSession;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-user push channel for session, transcription and summary changes.
+ * <p>
+ * Each connection has a small pending buffer keyed by what changed, so repeated
+ * changes to the same session or job between flushes collapse into the latest one.
+ * Buffers are flushed on a fixed interval as one JSON array per frame, at most one
+ * send in flight per connection. A buffer that still overflows, e.g. after a bulk import,
+ * is replaced by a single "sessions.refresh" and/or "jobs.refresh" message telling the
+ * client to revalidate with ETags. Only a connection whose send fails or does not
+ * complete in time is a slow consumer and is closed; the client reconnects and revalidates. A connection is also closed once the token
+ * it was opened with expires, so the client has to reconnect with a current one.
+ */
+@Component
+public class ChangeFeedHandler extends TextWebSocketHandler {
+    private static final Logger logger = LoggerFactory.getLogger(ChangeFeedHandler.class);
+
+    static final String USER_ID_ATTRIBUTE = "userId";
+    static final String SESSIONS_REFRESH = "sessions.refresh";
+    static final String JOBS_REFRESH = "jobs.refresh";
+    static final String TOKEN_EXPIRATION_ATTRIBUTE = "tokenExpiration";
+
+    private static final String TOMCAT_SEND_TIMEOUT = "org.apache.tomcat.websocket.BLOCKING_SEND_TIMEOUT";
+
+    private static final CloseStatus TOKEN_EXPIRED = CloseStatus.POLICY_VIOLATION.withReason("Token expired");
+
+    @Autowired
+    private ChangeFeedProperties properties;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private WorkerThreadFactory workerThreadFactory;
+
+    private final Map<Long, Set<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final Map<String, Connection> connectionsById = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService flusher;
+    private ExecutorService senders;
+
+    @PostConstruct
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(workerThreadFactory.create("change-feed-flush-"));
+        senders = Executors.newFixedThreadPool(properties.getSenderThreads(), workerThreadFactory.create("change-feed-send-"));
+        long interval = properties.getFlushInterval().toMillis();
+        flusher.scheduleWithFixedDelay(this::flushAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        flusher.shutdownNow();
+        senders.shutdownNow();
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        Long userId = (Long) session.getAttributes().get(USER_ID_ATTRIBUTE);
+        Instant tokenExpiration = (Instant) session.getAttributes().get(TOKEN_EXPIRATION_ATTRIBUTE);
+        if (session instanceof NativeWebSocketSession) {
+            jakarta.websocket.Session nativeSession =
+                    ((NativeWebSocketSession) session).getNativeSession(jakarta.websocket.Session.class);
+            if (nativeSession != null) {
+                nativeSession.getUserProperties().put(TOMCAT_SEND_TIMEOUT, properties.getSendTimeout().toMillis());
+            }
+        }
+
+        Connection connection = new Connection(userId, tokenExpiration, new ConcurrentWebSocketSessionDecorator(session,
+                (int) properties.getSendTimeout().toMillis(), properties.getSendBufferSize()));
+        connectionsById.put(session.getId(), connection);
+        connectionsByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(connection);
+        logger.debug("Change feed opened for user {}", userId);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Connection connection = connectionsById.remove(session.getId());
+        if (connection != null) {
+            connectionsByUser.computeIfPresent(connection.userId, (id, connections) -> {
+                connections.remove(connection);
+                return connections.isEmpty() ? null : connections;
+            });
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        logger.debug("Change feed transport error: {}", exception.getMessage());
+    }
+
+    /**
+     * Queue a change for every open connection of a user
+     *
+     * @param userId the user ID
+     * @param key identifies what changed; a newer message with the same key replaces a pending one
+     * @param message the message
+     */
+    public void publish(Long userId, String key, ChangeFeedMessage message) {
+        Set<Connection> connections = connectionsByUser.get(userId);
+        if (connections == null) {
+            return;
+        }
+        for (Connection connection : connections) {
+            connection.offer(key, message);
+        }
+    }
+
+    private void flushAll() {
+        Instant now = Instant.now();
+        for (Connection connection : connectionsById.values()) {
+            if (connection.tokenExpiration != null && !connection.tokenExpiration.isAfter(now)) {
+                logger.debug("Closing change feed for user {}: token expired", connection.userId);
+                connection.close(TOKEN_EXPIRED);
+                continue;
+            }
+            if (connection.hasPending() && connection.sending.compareAndSet(false, true)) {
+                senders.execute(connection::flush);
+            }
+        }
+    }
+
+    static ChangeFeedMessage refreshMessage(String type) {
+        ChangeFeedMessage message = new ChangeFeedMessage();
+        message.setType(type);
+        return message;
+    }
+
+    // Session changes are keyed "session.<type>:<id>", job and summary changes by their own prefixes
+    private static String refreshKey(String key) {
+        return key.startsWith("session") ? SESSIONS_REFRESH : JOBS_REFRESH;
+    }
+
+    private class Connection {
+        private final Long userId;
+        private final Instant tokenExpiration; // null if the token does not expire
+        private final WebSocketSession session;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, ChangeFeedMessage> pending = new LinkedHashMap<>();
+        private final AtomicBoolean sending = new AtomicBoolean();
+
+        Connection(Long userId, Instant tokenExpiration, WebSocketSession session) {
+            this.userId = userId;
+            this.tokenExpiration = tokenExpiration;
+            this.session = session;
+        }
+
+        void offer(String key, ChangeFeedMessage message) {
+            lock.lock();
+            try {
+                if (pending.containsKey(refreshKey(key)) && !pending.containsKey(key)) {
+                    // Already covered by a pending refresh
+                    return;
+                }
+                // Re-insert so a coalesced change moves behind the ones before it
+                pending.remove(key);
+                pending.put(key, message);
+                if (pending.size() > properties.getMaxPendingEvents()) {
+                    collapse();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Replaces the pending changes with one refresh per kind of change among them
+        private void collapse() {
+            boolean sessions = false;
+            boolean jobs = false;
+            for (String key : pending.keySet()) {
+                if (SESSIONS_REFRESH.equals(refreshKey(key))) {
+                    sessions = true;
+                } else {
+                    jobs = true;
+                }
+            }
+            pending.clear();
+            if (sessions) {
+                pending.put(SESSIONS_REFRESH, refreshMessage(SESSIONS_REFRESH));
+            }
+            if (jobs) {
+                pending.put(JOBS_REFRESH, refreshMessage(JOBS_REFRESH));
+            }
+            logger.debug("Change feed of user {} overflowed; sending a refresh instead", userId);
+        }
+
+        boolean hasPending() {
+            lock.lock();
+            try {
+                return !pending.isEmpty();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void flush() {
+            try {
+                List<ChangeFeedMessage> batch;
+                lock.lock();
+                try {
+                    batch = new ArrayList<>(pending.values());
+                    pending.clear();
+                } finally {
+                    lock.unlock();
+                }
+                if (!batch.isEmpty() && session.isOpen()) {
+                    session.sendMessage(new TextMessage(objectMapper.writeValueAsString(batch)));
+                }
+            } catch (IOException | RuntimeException e) {
+                logger.info("Closing change feed for user {}: {}", userId, e.getMessage());
+                close(CloseStatus.SESSION_NOT_RELIABLE);
+            } finally {
+                sending.set(false);
+            }
+        }
+
+        void close(CloseStatus status) {
+            try {
+                session.close(status);
+            } catch (IOException e) {
+                logger.debug("Failed to close change feed: {}", e.getMessage());
+            }
+        }
+    }
+}
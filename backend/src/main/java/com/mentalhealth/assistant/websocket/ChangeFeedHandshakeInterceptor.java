@@ -0,0 +1,90 @@
+package com.mentalhealth.assistant.websocket;
+
+import com.mentalhealth.assistant.security.JwtUtils;
+import com.mentalhealth.assistant.security.UserDetailsServiceImpl;
+import com.mentalhealth.assistant.security.UserPrincipal;
+import com.mentalhealth.assistant.security.VerifiedToken;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.util.Map;
+
+/**
+ * Authenticates the change feed handshake. Browsers cannot set an Authorization
+ * header on a WebSocket request, so the JWT may also be passed as a "token" query
+ * parameter; requests that already carry a Bearer header are authenticated by
+ * the regular filter. The token's expiry is handed to the connection, which is
+ * closed when it is reached.
+ */
+@Component
+public class ChangeFeedHandshakeInterceptor implements HandshakeInterceptor {
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                                   WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        // Parsed even when the filter already authenticated the request: the connection lives only as long as the token
+        String token = bearerToken(request);
+        if (token == null) {
+            token = UriComponentsBuilder.fromUri(request.getURI()).build().getQueryParams().getFirst("token");
+        }
+        VerifiedToken verified = token != null ? jwtUtils.parseJwtToken(token) : null;
+
+        UserPrincipal principal = null;
+        if (verified != null) {
+            principal = authenticatedPrincipal();
+            if (principal == null) {
+                try {
+                    principal = userDetailsService.loadPrincipal(verified.getSubject());
+                } catch (UsernameNotFoundException e) {
+                    principal = null;
+                }
+            }
+        }
+
+        if (principal == null || !principal.isEnabled()) {
+            response.setStatusCode(HttpStatus.UNAUTHORIZED);
+            return false;
+        }
+        attributes.put(ChangeFeedHandler.USER_ID_ATTRIBUTE, principal.getId());
+        attributes.put(ChangeFeedHandler.TOKEN_EXPIRATION_ATTRIBUTE, verified.getExpiration());
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+                               WebSocketHandler wsHandler, Exception exception) {
+    }
+
+    private String bearerToken(ServerHttpRequest request) {
+        String headerAuth = request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (StringUtils.hasText(headerAuth) && headerAuth.startsWith("Bearer ")) {
+            return headerAuth.substring(7);
+        }
+        return null;
+    }
+
+    private UserPrincipal authenticatedPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof UserPrincipal) {
+            return (UserPrincipal) authentication.getPrincipal();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,73 @@
+package com.mentalhealth.assistant.websocket;
+
+import com.mentalhealth.assistant.dto.ChangeFeedMessage;
+import com.mentalhealth.assistant.event.RemoteJobChangeEvent;
+import com.mentalhealth.assistant.event.RemoteSessionChangeEvent;
+import com.mentalhealth.assistant.event.SessionChangeEvent;
+import com.mentalhealth.assistant.event.SummaryRequestEvent;
+import com.mentalhealth.assistant.event.TranscriptionJobEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Forwards committed session, transcription and summary changes to the change feed.
+ * Changes made on other nodes arrive without details, so they are forwarded as a
+ * "sessions.refresh" or "jobs.refresh" message telling the client to revalidate.
+ */
+@Component
+public class ChangeFeedListener {
+
+    @Autowired
+    private ChangeFeedHandler changeFeedHandler;
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSessionChange(SessionChangeEvent event) {
+        String type = "session." + event.getType().name().toLowerCase(Locale.ROOT);
+        ChangeFeedMessage message = new ChangeFeedMessage();
+        message.setType(type);
+        message.setSessionId(event.getSessionId());
+        message.setStatus(event.getStatus());
+        message.setPreviousStatus(event.getPreviousStatus());
+        changeFeedHandler.publish(event.getUserId(), type + ":" + event.getSessionId(), message);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTranscriptionJob(TranscriptionJobEvent event) {
+        ChangeFeedMessage message = new ChangeFeedMessage();
+        message.setType("transcription.job");
+        message.setSessionId(event.getJob().getSessionId());
+        message.setTranscriptionJob(event.getJob());
+        changeFeedHandler.publish(event.getUserId(), "transcription.job:" + event.getJob().getId(), message);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSummaryRequest(SummaryRequestEvent event) {
+        ChangeFeedMessage message = new ChangeFeedMessage();
+        message.setType("summary.request");
+        message.setSessionId(event.getRequest().getSessionId());
+        message.setSummaryRequest(event.getRequest());
+        changeFeedHandler.publish(event.getUserId(),
+                "summary.request:" + event.getRequest().getTranscriptionId(), message);
+    }
+
+    @EventListener
+    public void onRemoteSessionChange(RemoteSessionChangeEvent event) {
+        publishRefresh(event.getUserIds(), ChangeFeedHandler.SESSIONS_REFRESH);
+    }
+
+    @EventListener
+    public void onRemoteJobChange(RemoteJobChangeEvent event) {
+        publishRefresh(event.getUserIds(), ChangeFeedHandler.JOBS_REFRESH);
+    }
+
+    private void publishRefresh(Set<Long> userIds, String type) {
+        for (Long userId : userIds) {
+            changeFeedHandler.publish(userId, type, ChangeFeedHandler.refreshMessage(type));
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.mentalhealth.assistant.service;
+
+import com.mentalhealth.assistant.dto.SessionImportError;
+import com.mentalhealth.assistant.dto.SessionImportResult;
+import com.mentalhealth.assistant.model.Session;
+import com.mentalhealth.assistant.model.SessionStatus;
+import com.mentalhealth.assistant.model.User;
+import com.mentalhealth.assistant.security.CurrentUserProvider;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SessionImportServiceTest {
+
+    private static final String HEADER = "patientName,date,duration,status,notes\n";
+
+    private final List<Session> saved = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong();
+    private SessionImportService service;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setId(7L);
+        CurrentUserProvider currentUserProvider = mock(CurrentUserProvider.class);
+        when(currentUserProvider.getCurrentUser()).thenReturn(user);
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        // Sessions named "Broken" fail like a constraint violation; the others are saved on flush
+        List<Session> pending = new ArrayList<>();
+        EntityManager entityManager = mock(EntityManager.class);
+        when(entityManager.unwrap(org.hibernate.Session.class)).thenReturn(mock(org.hibernate.Session.class));
+        doAnswer(invocation -> {
+            Session session = invocation.getArgument(0);
+            assertThat(session.getId()).as("persisted sessions are transient").isNull();
+            session.setId(ids.incrementAndGet());
+            pending.add(session);
+            return null;
+        }).when(entityManager).persist(any(Session.class));
+        doAnswer(invocation -> {
+            try {
+                if (pending.stream().anyMatch(session -> session.getPatientName().equals("Broken"))) {
+                    throw new PersistenceException("could not execute statement [insert into sessions ...]");
+                }
+                saved.addAll(pending);
+            } finally {
+                pending.clear();
+            }
+            return null;
+        }).when(entityManager).flush();
+
+        service = new SessionImportService();
+        ReflectionTestUtils.setField(service, "currentUserProvider", currentUserProvider);
+        ReflectionTestUtils.setField(service, "sessionStatsStore", mock(SessionStatsStore.class));
+        ReflectionTestUtils.setField(service, "sessionSearchIndex", mock(SessionSearchIndex.class));
+        ReflectionTestUtils.setField(service, "objectMapper", Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(service, "transactionManager", transactionManager);
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+    }
+
+    @Test
+    void importsCsvRowsAndReportsInvalidOnes() throws IOException {
+        SessionImportResult result = service.importCsv(body(HEADER
+                + "Anna,2024-03-04T10:00:00,50,completed,\"Sleep, mood\r\nand \"\"energy\"\"\"\r\n"
+                + "\n"
+                + "Ben,yesterday,50,,\n"
+                + "Cara,2024-03-05T10:00:00,-5,,\n"
+                + "Dan,2024-03-06T10:00:00,45\n"));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(SessionImportError::getLine).containsExactly(5L, 6L);
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("Invalid date: yesterday");
+
+        Session anna = saved.get(0);
+        assertThat(anna.getNotes()).isEqualTo("Sleep, mood\r\nand \"energy\"");
+        assertThat(anna.getStatus()).isEqualTo(SessionStatus.COMPLETED);
+        assertThat(anna.getDate()).isEqualTo(LocalDateTime.of(2024, 3, 4, 10, 0));
+        assertThat(anna.getUser().getId()).isEqualTo(7L);
+        assertThat(saved.get(1).getStatus()).isEqualTo(SessionStatus.SCHEDULED);
+    }
+
+    @Test
+    void headerMustNameTheRequiredColumns() {
+        assertThatThrownBy(() -> service.importCsv(body("patientName,date\nAnna,2024-03-04T10:00:00\n")))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void valuesLongerThanTheirColumnAreRejected() throws IOException {
+        SessionImportResult result = service.importCsv(body(HEADER
+                + "Anna,2024-03-04T10:00:00,50,," + "x".repeat(256) + "\n"
+                + "Ben,2024-03-04T11:00:00,50,," + "x".repeat(255) + "\n"));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(SessionImportError::getMessage)
+                .containsExactly("notes is longer than 255 characters");
+    }
+
+    @Test
+    void oversizedRecordIsSkippedWithoutBufferingIt() throws IOException {
+        SessionImportResult result = service.importCsv(body(HEADER
+                + "Anna,2024-03-04T10:00:00,50,,\"" + "x".repeat(200_000) + "\"\n"
+                + "Ben,2024-03-04T11:00:00,50,,\"quoted, after\"\n"));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(saved.get(0).getNotes()).isEqualTo("quoted, after");
+        assertThat(result.getErrors()).extracting(SessionImportError::getLine).containsExactly(2L);
+        assertThat(result.getErrors().get(0).getMessage()).startsWith("Record is longer than");
+    }
+
+    @Test
+    void unterminatedQuoteRejectsOnlyTheLastRow() throws IOException {
+        SessionImportResult result = service.importCsv(body(HEADER
+                + "Anna,2024-03-04T10:00:00,50,,fine\n"
+                + "Ben,2024-03-04T11:00:00,50,,\"never closed\nCara,2024-03-04T12:00:00,50,,\n"));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(SessionImportError::getLine).containsExactly(3L);
+        assertThat(result.getErrors().get(0).getMessage()).isEqualTo("Quoted field is never closed");
+    }
+
+    @Test
+    void failedChunkIsRetriedRowByRow() throws IOException {
+        SessionImportResult result = service.importCsv(body(HEADER
+                + "Anna,2024-03-04T10:00:00,50,,\n"
+                + "Broken,2024-03-04T11:00:00,50,,\n"
+                + "Cara,2024-03-04T12:00:00,50,,\n"));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(saved).extracting(Session::getPatientName).containsExactly("Anna", "Cara");
+        // The database error is logged, not returned
+        assertThat(result.getErrors()).containsExactly(new SessionImportError(3, "Could not be saved"));
+    }
+
+    @Test
+    void importsNdjsonLinesAndReportsInvalidOnes() throws IOException {
+        SessionImportResult result = service.importNdjson(body(
+                "{\"patientName\":\"Anna\",\"date\":\"2024-03-04T10:00:00\",\"duration\":50}\r\n"
+                + "\n"
+                + "{\"patientName\":\n"
+                + "{\"patientName\":\"Ben\",\"date\":\"2024-03-04T10:00:00\",\"duration\":50,\"notes\":\""
+                + "x".repeat(100_000) + "\"}\n"
+                + "{\"patientName\":\"Cara\",\"date\":\"2024-03-04T11:00:00\",\"duration\":30,\"status\":\"COMPLETED\"}"));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(saved).extracting(Session::getPatientName).containsExactly("Anna", "Cara");
+        assertThat(result.getErrors()).extracting(SessionImportError::getLine).containsExactly(3L, 4L);
+        assertThat(result.getErrors().get(0).getMessage()).startsWith("Invalid JSON");
+        assertThat(result.getErrors().get(1).getMessage()).startsWith("Line is longer than");
+    }
+
+    private static InputStream body(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,194 @@
+package com.mentalhealth.assistant.service;
+
+import com.mentalhealth.assistant.dto.SessionSearchHit;
+import com.mentalhealth.assistant.event.RemoteSessionChangeEvent;
+import com.mentalhealth.assistant.model.Session;
+import com.mentalhealth.assistant.model.SessionStatus;
+import com.mentalhealth.assistant.model.User;
+import com.mentalhealth.assistant.repository.SessionRepository;
+import com.mentalhealth.assistant.repository.SessionSearchRow;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionSearchIndexTest {
+
+    private static final Long USER_ID = 7L;
+    private static final Long OTHER_USER_ID = 8L;
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 3, 4, 10, 0);
+
+    private SessionRepository sessionRepository;
+    private SessionSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        sessionRepository = mock(SessionRepository.class);
+        List<SessionSearchRow> rows = List.of(
+                row(1L, USER_ID, "Anna Müller", "Follow-up on sleep routine", MONDAY),
+                row(2L, USER_ID, "Mark Annable", "Discussed anxiety triggers", MONDAY.plusDays(1)),
+                row(3L, USER_ID, "Jo Smith", "Anna's sister joined the session", MONDAY.plusDays(2)),
+                row(4L, OTHER_USER_ID, "Anna Lee", null, MONDAY));
+        when(sessionRepository.findAllSearchRows()).thenReturn(rows);
+        index = new SessionSearchIndex();
+        ReflectionTestUtils.setField(index, "sessionRepository", sessionRepository);
+        index.rebuild();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void namePrefixMatchesRankBeforeNoteMatches() {
+        List<SessionSearchHit> hits = index.search(USER_ID, "ann", 10);
+
+        // Name hits by most recent first, then the note hit
+        assertThat(hits).extracting(SessionSearchHit::getId).containsExactly(2L, 1L, 3L);
+        assertThat(hits).extracting(SessionSearchHit::isNotesMatch).containsExactly(false, false, true);
+    }
+
+    @Test
+    void matchesIgnoreCaseAndAccents() {
+        assertThat(ids(index.search(USER_ID, "MULLER", 10))).containsExactly(1L);
+        assertThat(ids(index.search(USER_ID, "müll", 10))).containsExactly(1L);
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        assertThat(ids(index.search(USER_ID, "anna sleep", 10))).containsExactly(1L);
+        assertThat(ids(index.search(USER_ID, "anna smith", 10))).containsExactly(3L);
+        assertThat(index.search(USER_ID, "anna zebra", 10)).isEmpty();
+    }
+
+    @Test
+    void termsLongerThanThePostingKeyAreCheckedInFull() {
+        index.recordSaved(session(5L, USER_ID, "Pat", "psychotherapeutic intake"));
+        index.recordSaved(session(6L, USER_ID, "Sam", "psychotherapeutics reading"));
+
+        assertThat(ids(index.search(USER_ID, "psychotherapeutic", 10))).containsExactlyInAnyOrder(5L, 6L);
+        assertThat(ids(index.search(USER_ID, "psychotherapeutics", 10))).containsExactly(6L);
+        assertThat(index.search(USER_ID, "psychotherapeutix", 10)).isEmpty();
+    }
+
+    @Test
+    void resultsArePartitionedByUser() {
+        assertThat(ids(index.search(OTHER_USER_ID, "anna", 10))).containsExactly(4L);
+        assertThat(index.search(99L, "anna", 10)).isEmpty();
+    }
+
+    @Test
+    void blankQueriesAndLimitsAreHandled() {
+        assertThat(index.search(USER_ID, "  ", 10)).isEmpty();
+        assertThat(index.search(USER_ID, "ann", 1)).hasSize(1);
+        assertThat(index.search(USER_ID, "ann", 0)).hasSize(1);
+    }
+
+    @Test
+    void patchKeepsFieldsThatDidNotChange() {
+        index.recordPatched(USER_ID, 1L, "Anna Schmidt", null, null, SessionStatus.COMPLETED);
+
+        assertThat(index.search(USER_ID, "muller", 10)).isEmpty();
+        List<SessionSearchHit> hits = index.search(USER_ID, "schmidt sleep", 10);
+        assertThat(ids(hits)).containsExactly(1L);
+        assertThat(hits.get(0).getDate()).isEqualTo(MONDAY);
+        assertThat(hits.get(0).getStatus()).isEqualTo(SessionStatus.COMPLETED);
+    }
+
+    @Test
+    void deletedSessionsAreNoLongerFound() {
+        index.recordDeleted(USER_ID, 2L);
+
+        assertThat(ids(index.search(USER_ID, "ann", 10))).containsExactly(1L, 3L);
+        assertThat(index.search(USER_ID, "anxiety", 10)).isEmpty();
+    }
+
+    @Test
+    void writesApplyOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        index.recordSaved(session(5L, USER_ID, "Zoe Park", null));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertThat(index.search(USER_ID, "zoe", 10)).isEmpty();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertThat(ids(index.search(USER_ID, "zoe", 10))).containsExactly(5L);
+    }
+
+    @Test
+    void remoteChangesAreReadOnTheNextSearch() {
+        List<SessionSearchRow> rows = List.of(
+                row(1L, USER_ID, "Anna Schmidt", "Follow-up on sleep routine", MONDAY),
+                row(9L, USER_ID, "Nina Berg", null, MONDAY));
+        when(sessionRepository.findSearchRowsByUserId(USER_ID)).thenReturn(rows);
+
+        index.onRemoteChange(new RemoteSessionChangeEvent(Set.of(USER_ID, 99L)));
+
+        assertThat(ids(index.search(USER_ID, "anna", 10))).containsExactly(1L);
+        assertThat(ids(index.search(USER_ID, "nina", 10))).containsExactly(9L);
+        assertThat(index.search(99L, "anna", 10)).isEmpty();
+        assertThat(ids(index.search(OTHER_USER_ID, "anna", 10))).containsExactly(4L);
+        verify(sessionRepository, times(1)).findSearchRowsByUserId(USER_ID);
+    }
+
+    @Test
+    void localWriteDuringReloadIsNotLost() {
+        List<SessionSearchRow> before = List.of(row(1L, USER_ID, "Anna Müller", null, MONDAY));
+        List<SessionSearchRow> after = List.of(row(1L, USER_ID, "Anna Müller", null, MONDAY),
+                row(5L, USER_ID, "Zoe Park", null, MONDAY));
+        when(sessionRepository.findSearchRowsByUserId(USER_ID)).thenAnswer(invocation -> {
+            // Commits after the reload read its rows
+            index.recordSaved(session(5L, USER_ID, "Zoe Park", null));
+            return before;
+        }).thenReturn(after);
+        index.onRemoteChange(new RemoteSessionChangeEvent(Set.of(USER_ID)));
+
+        assertThat(index.search(USER_ID, "zoe", 10)).isEmpty();
+        assertThat(ids(index.search(USER_ID, "zoe", 10))).containsExactly(5L);
+        assertThat(ids(index.search(USER_ID, "zoe", 10))).containsExactly(5L);
+        verify(sessionRepository, times(2)).findSearchRowsByUserId(USER_ID);
+    }
+
+    private static List<Long> ids(List<SessionSearchHit> hits) {
+        return hits.stream().map(SessionSearchHit::getId).toList();
+    }
+
+    private static SessionSearchRow row(Long id, Long userId, String patientName, String notes, LocalDateTime date) {
+        SessionSearchRow row = mock(SessionSearchRow.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getUserId()).thenReturn(userId);
+        when(row.getPatientName()).thenReturn(patientName);
+        when(row.getNotes()).thenReturn(notes);
+        when(row.getDate()).thenReturn(date);
+        when(row.getStatus()).thenReturn(SessionStatus.SCHEDULED);
+        return row;
+    }
+
+    private static Session session(Long id, Long userId, String patientName, String notes) {
+        User user = new User();
+        user.setId(userId);
+        Session session = new Session();
+        session.setId(id);
+        session.setUser(user);
+        session.setPatientName(patientName);
+        session.setNotes(notes);
+        session.setDate(MONDAY.plusDays(id));
+        session.setStatus(SessionStatus.SCHEDULED);
+        return session;
+    }
+}
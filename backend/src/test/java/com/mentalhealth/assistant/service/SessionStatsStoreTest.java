@@ -0,0 +1,149 @@
+package com.mentalhealth.assistant.service;
+
+import com.mentalhealth.assistant.event.RemoteSessionChangeEvent;
+import com.mentalhealth.assistant.model.SessionStatus;
+import com.mentalhealth.assistant.repository.SessionRepository;
+import com.mentalhealth.assistant.repository.SessionStatusCount;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SessionStatsStoreTest {
+
+    private static final Long USER_ID = 7L;
+
+    private SessionRepository sessionRepository;
+    private SessionStatsStore store;
+
+    @BeforeEach
+    void setUp() {
+        sessionRepository = mock(SessionRepository.class);
+        when(sessionRepository.countGroupedByStatus(anyLong())).thenReturn(List.of());
+        store = new SessionStatsStore();
+        ReflectionTestUtils.setField(store, "sessionRepository", sessionRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void firstSessionOfUnloadedUserIsCountedOnce() {
+        inTransaction(() -> store.recordCreated(USER_ID, SessionStatus.SCHEDULED),
+                () -> committedCounts(SessionStatus.SCHEDULED, 1));
+
+        assertThat(store.getStats(USER_ID)).containsEntry("scheduledSessions", 1L).containsEntry("totalSessions", 1L);
+    }
+
+    @Test
+    void deltasApplyToLoadedCounts() {
+        assertThat(store.getStats(USER_ID)).containsEntry("totalSessions", 0L);
+
+        inTransaction(() -> store.recordCreated(USER_ID, SessionStatus.SCHEDULED), () -> { });
+        inTransaction(() -> store.recordStatusChanged(USER_ID, SessionStatus.SCHEDULED, SessionStatus.COMPLETED), () -> { });
+
+        Map<String, Long> stats = store.getStats(USER_ID);
+        assertThat(stats).containsEntry("scheduledSessions", 0L).containsEntry("completedSessions", 1L)
+                .containsEntry("totalSessions", 1L);
+        verify(sessionRepository, times(1)).countGroupedByStatus(USER_ID);
+    }
+
+    @Test
+    void countsLoadedWhileAWriteCommitsAreNotCached() {
+        List<TransactionSynchronization> synchronizations = begin(() -> store.recordCreated(USER_ID, SessionStatus.SCHEDULED));
+        committedCounts(SessionStatus.SCHEDULED, 1);
+
+        // Between the database commit and the in-memory delta
+        assertThat(store.getStats(USER_ID)).containsEntry("totalSessions", 1L);
+        complete(synchronizations);
+
+        assertThat(store.getStats(USER_ID)).containsEntry("totalSessions", 1L);
+        assertThat(store.getStats(USER_ID)).containsEntry("totalSessions", 1L);
+        // Recounted once after the write completed, then served from memory
+        verify(sessionRepository, times(2)).countGroupedByStatus(USER_ID);
+    }
+
+    @Test
+    void recountDropsLoadedCounts() {
+        assertThat(store.getStats(USER_ID)).containsEntry("totalSessions", 0L);
+
+        inTransaction(() -> store.recordRecount(USER_ID), () -> committedCounts(SessionStatus.IN_PROGRESS, 2));
+
+        assertThat(store.getStats(USER_ID)).containsEntry("inProgressSessions", 2L);
+    }
+
+    @Test
+    void remoteChangeDropsLoadedCounts() {
+        assertThat(store.getStats(USER_ID)).containsEntry("totalSessions", 0L);
+
+        committedCounts(SessionStatus.COMPLETED, 3);
+        store.onRemoteChange(new RemoteSessionChangeEvent(Set.of(USER_ID)));
+
+        assertThat(store.getStats(USER_ID)).containsEntry("completedSessions", 3L);
+    }
+
+    @Test
+    void countsAreLoadedWithoutHoldingTheMapLock() {
+        Map<Long, ?> statsByUser = statsByUser();
+        when(sessionRepository.countGroupedByStatus(USER_ID)).thenAnswer(invocation -> {
+            // Would block, and on a virtual thread pin its carrier, if the query ran inside compute
+            CompletableFuture.runAsync(() -> statsByUser.compute(USER_ID, (id, existing) -> existing))
+                    .get(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        assertThat(store.getStats(USER_ID)).containsEntry("totalSessions", 0L);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, ?> statsByUser() {
+        return (Map<Long, ?>) ReflectionTestUtils.getField(store, "statsByUser");
+    }
+
+    private void committedCounts(SessionStatus status, long count) {
+        SessionStatusCount row = mock(SessionStatusCount.class);
+        when(row.getUserId()).thenReturn(USER_ID);
+        when(row.getStatus()).thenReturn(status);
+        when(row.getCount()).thenReturn(count);
+        when(sessionRepository.countGroupedByStatus(USER_ID)).thenReturn(List.of(row));
+    }
+
+    // Runs the write inside a simulated transaction, then the commit, then the synchronizations
+    private void inTransaction(Runnable write, Runnable commit) {
+        List<TransactionSynchronization> synchronizations = begin(write);
+        commit.run();
+        complete(synchronizations);
+    }
+
+    private List<TransactionSynchronization> begin(Runnable write) {
+        TransactionSynchronizationManager.initSynchronization();
+        write.run();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        return synchronizations;
+    }
+
+    private static void complete(List<TransactionSynchronization> synchronizations) {
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+}